@@ -0,0 +1,60 @@
+package me.dev_dio.chatnova.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.velocitypowered.api.proxy.Player;
+
+import me.dev_dio.chatnova.manager.MessageManager;
+import me.dev_dio.chatnova.manager.PlayerStateStore;
+import net.kyori.adventure.text.Component;
+
+/**
+ * Fan-out of one rendered message to every online player, with a tenth of them hiding
+ * global chat. Sending is a no-op, so this measures ChatNova's own per-recipient cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+    @Param({"10", "100", "1000", "5000"})
+    private int playerCount;
+
+    private MessageManager messageManager;
+    private Component message;
+
+    @Setup
+    public void setup() throws IOException {
+        PlayerStateStore playerState = new PlayerStateStore();
+        messageManager = Stubs.messageManager(false, playerState);
+
+        List<Player> players = Stubs.players(playerCount);
+        messageManager.getRecipientIndex().setOnlinePlayers(players);
+        for (int i = 0; i < playerCount; i += 10) {
+            playerState.setGlobalChatHidden(players.get(i).getUniqueId(), true);
+        }
+
+        message = messageManager.formatText("&7[&bLobby&7] &fDev_Dio&7: &fhello everyone");
+    }
+
+    @Benchmark
+    public int broadcast() {
+        return messageManager.broadcast(message);
+    }
+}
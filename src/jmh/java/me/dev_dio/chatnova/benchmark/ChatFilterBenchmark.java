@@ -0,0 +1,94 @@
+package me.dev_dio.chatnova.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dev_dio.chatnova.filter.ChatFilter;
+
+/**
+ * Banned word checks against word lists of different sizes, for a clean message and one
+ * containing a banned word
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatFilterBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int wordCount;
+
+    private ChatFilter filter;
+    private String cleanMessage;
+    private String bannedMessage;
+
+    @Setup
+    public void setup() {
+        // Fixed seed, so every run bans the same words
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            words.add(randomWord(random, 5 + random.nextInt(6)));
+        }
+
+        filter = new ChatFilter(256);
+        filter.updateBannedWords(words);
+
+        cleanMessage = "hey everyone, anyone up for a round of bedwars on the main server later?";
+        bannedMessage = "hey everyone, " + words.get(wordCount / 2) + " anyone up for a round of bedwars?";
+    }
+
+    @Benchmark
+    public boolean containsBannedWordsClean() {
+        return filter.containsBannedWords(cleanMessage);
+    }
+
+    @Benchmark
+    public boolean containsBannedWordsMatch() {
+        return filter.containsBannedWords(bannedMessage);
+    }
+
+    @Benchmark
+    public String censorMessageClean() {
+        return filter.censorMessage(cleanMessage);
+    }
+
+    @Benchmark
+    public String censorMessageMatch() {
+        return filter.censorMessage(bannedMessage);
+    }
+
+    @Benchmark
+    public ChatFilter.FilterResult filterMessageClean() {
+        return filter.filterMessage(cleanMessage);
+    }
+
+    @Benchmark
+    public ChatFilter.FilterResult filterMessageMatch() {
+        return filter.filterMessage(bannedMessage);
+    }
+
+    private static String randomWord(Random random, int length) {
+        // Letters a message is unlikely to contain, so the clean message stays clean
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('q' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,63 @@
+package me.dev_dio.chatnova.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import me.dev_dio.chatnova.manager.MessageManager;
+import me.dev_dio.chatnova.util.FormatUtil;
+import net.kyori.adventure.text.Component;
+
+/**
+ * Legacy/MiniMessage conversion and formatting of a typical rendered chat line
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatBenchmark {
+    private static final String LEGACY_LINE = "&7[&bLobby&7] &c&lAdmin &fDev_Dio&7: &fhello &aeveryone&f, &#ff8800welcome &rback!";
+
+    @Param({"false", "true"})
+    private boolean useMiniMessage;
+
+    private MessageManager messageManager;
+
+    @Setup
+    public void setup() throws IOException {
+        messageManager = Stubs.messageManager(useMiniMessage);
+    }
+
+    @Benchmark
+    public Component formatText() {
+        return messageManager.formatText(LEGACY_LINE);
+    }
+
+    @Benchmark
+    public String convertLegacyToMiniMessage() {
+        return messageManager.convertLegacyToMiniMessage(LEGACY_LINE);
+    }
+
+    @Benchmark
+    public String legacyToMini() {
+        return FormatUtil.legacyToMini(LEGACY_LINE);
+    }
+
+    @Benchmark
+    public String stripAllFormatting() {
+        return FormatUtil.stripAllFormatting(LEGACY_LINE);
+    }
+}
@@ -0,0 +1,401 @@
+package me.dev_dio.chatnova.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+
+import me.dev_dio.chatnova.ChatNova;
+import me.dev_dio.chatnova.Constants;
+import me.dev_dio.chatnova.pipeline.ChatContext;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.cacheddata.CachedDataManager;
+import net.luckperms.api.cacheddata.CachedMetaData;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.model.user.UserManager;
+
+/**
+ * Replays a chat storm against ChatNova without a proxy. Simulated players send /gc through
+ * the real command and pipeline; LuckPerms and LiteBans are replaced by fakes that answer after
+ * a configurable delay. Reports end-to-end latency percentiles from submission until a message
+ * was broadcast or rejected, throughput, and bytes allocated per message.
+ * <p>
+ * Options are {@code key=value} arguments, see {@link Options}. Run with
+ * {@code mvn -Pbenchmark package exec:exec@loadtest -Dloadtest.args="players=2000 threads=8"}.
+ */
+public class LoadTest {
+    private static final String BANNED_WORD = "badword";
+    private static final String[] CLEAN = {"anyone", "up", "for", "bedwars", "on", "the", "lobby?"};
+    private static final String[] BANNED = {"this", "is", "a", BANNED_WORD, "message"};
+    private static final String[] URL = {"join", "me", "at", "play.example.com", "now"};
+
+    private enum Kind { CLEAN, BANNED, URL, COOLDOWN }
+
+    /**
+     * Command line options with their defaults
+     */
+    static class Options {
+        int players = 1000;
+        int messages = 100_000;
+        int warmup = 20_000;
+        int threads = 4;
+        String pipeline = Constants.PIPELINE_MODE_ASYNC;
+        int pipelineThreads = Constants.Defaults.PIPELINE_THREADS;
+        int queueSize = Constants.Defaults.PIPELINE_QUEUE_SIZE;
+        long muteLatencyMicros = 2000;
+        long prefixLatencyMicros = 200;
+        int muteCacheTtl = Constants.Defaults.MUTE_CACHE_TTL;
+        // Message mix weights
+        int clean = 70;
+        int banned = 10;
+        int url = 10;
+        int cooldown = 10;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : String.join(" ", args).trim().split("\\s+")) {
+                if (arg.isEmpty()) {
+                    continue;
+                }
+
+                String[] pair = arg.split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected key=value but got " + arg);
+                }
+                options.set(pair[0], pair[1]);
+            }
+            return options;
+        }
+
+        private void set(String key, String value) {
+            switch (key) {
+                case "players": players = Integer.parseInt(value); break;
+                case "messages": messages = Integer.parseInt(value); break;
+                case "warmup": warmup = Integer.parseInt(value); break;
+                case "threads": threads = Integer.parseInt(value); break;
+                case "pipeline": pipeline = value; break;
+                case "pipeline-threads": pipelineThreads = Integer.parseInt(value); break;
+                case "queue-size": queueSize = Integer.parseInt(value); break;
+                case "mute-latency": muteLatencyMicros = Long.parseLong(value); break;
+                case "prefix-latency": prefixLatencyMicros = Long.parseLong(value); break;
+                case "mute-cache-ttl": muteCacheTtl = Integer.parseInt(value); break;
+                case "clean": clean = Integer.parseInt(value); break;
+                case "banned": banned = Integer.parseInt(value); break;
+                case "url": url = Integer.parseInt(value); break;
+                case "cooldown": cooldown = Integer.parseInt(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+
+        Kind pick(Random random) {
+            int roll = random.nextInt(clean + banned + url + cooldown);
+            if ((roll -= clean) < 0) {
+                return Kind.CLEAN;
+            } else if ((roll -= banned) < 0) {
+                return Kind.BANNED;
+            } else if ((roll -= url) < 0) {
+                return Kind.URL;
+            }
+            return Kind.COOLDOWN;
+        }
+    }
+
+    /**
+     * A simulated player, at most one of its messages is in the pipeline at a time
+     */
+    private static final class SimulatedPlayer {
+        private final Player player;
+        private volatile boolean inFlight;
+
+        private SimulatedPlayer(Player player) {
+            this.player = player;
+        }
+    }
+
+    private final Options options;
+    private final Map<UUID, SimulatedPlayer> players = new ConcurrentHashMap<>();
+    private final LongAdder deliveries = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger recorded = new AtomicInteger();
+    private volatile long[] latencies = new long[0];
+
+    private ChatNova plugin;
+    private SimpleCommand command;
+
+    private LoadTest(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        LoadTest test = new LoadTest(options);
+        test.start();
+        try {
+            System.out.printf("Warming up with %d messages%n", options.warmup);
+            test.run(options.warmup);
+
+            long allocatedBefore = allocatedBytes();
+            long elapsed = test.run(options.messages);
+            test.report(elapsed, allocatedBytes() - allocatedBefore);
+        } finally {
+            test.plugin.shutdown();
+        }
+    }
+
+    private void start() throws Exception {
+        Path dataDirectory = Files.createTempDirectory("chatnova-loadtest");
+        Files.writeString(dataDirectory.resolve(Constants.CONFIG_FILE), String.join("\n",
+                "chat:",
+                "  max-length: 256",
+                "  banned-words-action: " + Constants.BANNED_WORDS_BLOCK,
+                "  pipeline:",
+                "    mode: " + options.pipeline,
+                "    threads: " + options.pipelineThreads,
+                "    queue-size: " + options.queueSize,
+                "cooldown:",
+                "  default: 30",
+                "litebans:",
+                "  cache-ttl: " + options.muteCacheTtl,
+                "auto-reload:",
+                "  enabled: false",
+                ""));
+        Files.writeString(dataDirectory.resolve(Constants.BANNED_WORDS_FILE),
+                Constants.YamlKeys.BANNED_WORDS + ": [" + BANNED_WORD + "]\n");
+
+        List<Player> online = new ArrayList<>();
+        for (int i = 0; i < options.players; i++) {
+            Player player = player("Player" + i);
+            online.add(player);
+            players.put(player.getUniqueId(), new SimulatedPlayer(player));
+        }
+
+        plugin = new ChatNova(server(online), Stubs.logger(), dataDirectory, luckPerms(), uuid -> {
+            pause(options.muteLatencyMicros);
+            return false;
+        });
+        plugin.initialize().get(30, TimeUnit.SECONDS);
+        plugin.getMessageManager().getRecipientIndex().setOnlinePlayers(online);
+        plugin.getChatPipeline().setCompletionListener(this::onComplete);
+        command = plugin.getGlobalChatCommand();
+    }
+
+    /**
+     * Send messages from all driver threads and wait until every one left the pipeline
+     * @return Wall clock nanoseconds taken
+     */
+    private long run(int messages) throws InterruptedException {
+        latencies = new long[messages];
+        recorded.set(0);
+        accepted.reset();
+        rejected.reset();
+        deliveries.reset();
+
+        List<SimulatedPlayer> all = new ArrayList<>(players.values());
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < options.threads; t++) {
+            // Each driver owns a slice of the players, so no player is driven twice at once
+            List<SimulatedPlayer> slice = new ArrayList<>();
+            for (int i = t; i < all.size(); i += options.threads) {
+                slice.add(all.get(i));
+            }
+            int count = messages / options.threads + (t < messages % options.threads ? 1 : 0);
+            Thread thread = new Thread(() -> drive(slice, count, new Random(slice.size() * 31L + count)), "LoadTest-Driver-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        while (recorded.get() < messages) {
+            Thread.onSpinWait();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void drive(List<SimulatedPlayer> slice, int count, Random random) {
+        SimulatedPlayer last = null;
+        int next = 0;
+        for (int sent = 0; sent < count; sent++) {
+            Kind kind = options.pick(random);
+
+            SimulatedPlayer sender;
+            if (kind == Kind.COOLDOWN && last != null) {
+                // Resend right away from the previous sender, whose cooldown has just started
+                sender = last;
+                awaitIdle(sender);
+            } else {
+                sender = slice.get(next++ % slice.size());
+                awaitIdle(sender);
+                plugin.getCooldownManager().evict(sender.player.getUniqueId());
+            }
+
+            String[] words = kind == Kind.BANNED ? BANNED : kind == Kind.URL ? URL : CLEAN;
+            sender.inFlight = true;
+            command.execute(invocation(sender.player, words));
+            last = sender;
+        }
+    }
+
+    private void onComplete(ChatContext context, boolean wasAccepted) {
+        long latency = System.nanoTime() - context.getSubmittedAt();
+        (wasAccepted ? accepted : rejected).increment();
+
+        long[] target = latencies;
+        int index = recorded.getAndIncrement();
+        if (index < target.length) {
+            target[index] = latency;
+        }
+        players.get(context.getSender().getUniqueId()).inFlight = false;
+    }
+
+    private void report(long elapsedNanos, long allocated) {
+        long[] sorted = Arrays.copyOf(latencies, Math.min(recorded.get(), latencies.length));
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+
+        System.out.printf("%nChatNova load test: %d players, %d messages, %d driver threads, %s pipeline%n",
+                options.players, options.messages, options.threads, options.pipeline);
+        System.out.printf("Mix: clean %d, banned %d, url %d, cooldown %d; mute latency %dus, prefix latency %dus%n",
+                options.clean, options.banned, options.url, options.cooldown,
+                options.muteLatencyMicros, options.prefixLatencyMicros);
+        System.out.printf("Accepted %d, rejected %d, delivered %d chat lines%n",
+                accepted.sum(), rejected.sum(), deliveries.sum());
+        System.out.printf("Throughput %.0f msg/s%n", options.messages / seconds);
+        System.out.printf("Latency p50 %.3f ms, p99 %.3f ms, p999 %.3f ms, max %.3f ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0);
+        System.out.printf("Allocated %.1f KB per message%n", allocated / 1024.0 / options.messages);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    /**
+     * Bytes allocated so far by every live thread, including the pipeline and lookup threads
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, allocated);
+        }
+        return total;
+    }
+
+    private static void awaitIdle(SimulatedPlayer player) {
+        while (player.inFlight) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void pause(long micros) {
+        if (micros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+    }
+
+    // Fakes
+
+    private Player player(String username) {
+        UUID uuid = UUID.nameUUIDFromBytes(username.getBytes());
+        return Stubs.stub(Player.class, (method, args) -> {
+            switch (method) {
+                case "getUniqueId":
+                    return uuid;
+                case "getUsername":
+                    return username;
+                case "hasPermission":
+                    // Regular players: may chat, but bypass nothing and have the default cooldown
+                    return Constants.Permissions.GC_USE.equals(args[0]);
+                case "sendMessage":
+                    deliveries.increment();
+                    return null;
+                default:
+                    return Stubs.EMPTY;
+            }
+        });
+    }
+
+    private static ProxyServer server(List<Player> online) {
+        Map<UUID, Player> byUuid = new HashMap<>();
+        online.forEach(player -> byUuid.put(player.getUniqueId(), player));
+        return Stubs.stub(ProxyServer.class, (method, args) -> {
+            switch (method) {
+                case "getAllPlayers":
+                    return online;
+                case "getPlayerCount":
+                    return online.size();
+                case "getPlayer":
+                    return args[0] instanceof UUID ? Optional.ofNullable(byUuid.get(args[0])) : Optional.empty();
+                default:
+                    return Stubs.EMPTY;
+            }
+        });
+    }
+
+    private LuckPerms luckPerms() {
+        CachedMetaData metaData = Stubs.stub(CachedMetaData.class,
+                (method, args) -> "getPrefix".equals(method) ? "&7[&bMember&7] " : Stubs.EMPTY);
+        CachedDataManager cachedData = Stubs.stub(CachedDataManager.class,
+                (method, args) -> "getMetaData".equals(method) ? metaData : Stubs.EMPTY);
+
+        UserManager userManager = Stubs.stub(UserManager.class, (method, args) -> {
+            if (!"getUser".equals(method) || !(args[0] instanceof UUID)) {
+                return Stubs.EMPTY;
+            }
+
+            pause(options.prefixLatencyMicros);
+            UUID uuid = (UUID) args[0];
+            return Stubs.stub(User.class, (userMethod, userArgs) -> {
+                switch (userMethod) {
+                    case "getUniqueId":
+                        return uuid;
+                    case "getCachedData":
+                        return cachedData;
+                    default:
+                        return Stubs.EMPTY;
+                }
+            });
+        });
+        return Stubs.stub(LuckPerms.class, (method, args) -> "getUserManager".equals(method) ? userManager : Stubs.EMPTY);
+    }
+
+    private static SimpleCommand.Invocation invocation(Player source, String[] arguments) {
+        return Stubs.stub(SimpleCommand.Invocation.class, (method, args) -> {
+            switch (method) {
+                case "source":
+                    return source;
+                case "arguments":
+                    return arguments;
+                case "alias":
+                    return "gc";
+                default:
+                    return Stubs.EMPTY;
+            }
+        });
+    }
+}
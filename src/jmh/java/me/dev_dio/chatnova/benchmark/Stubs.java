@@ -0,0 +1,135 @@
+package me.dev_dio.chatnova.benchmark;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+
+import me.dev_dio.chatnova.Constants;
+import me.dev_dio.chatnova.manager.ConfigManager;
+import me.dev_dio.chatnova.manager.MessageManager;
+import me.dev_dio.chatnova.manager.PlayerStateStore;
+import net.luckperms.api.LuckPerms;
+
+/**
+ * Stand-ins for the Velocity, LuckPerms and SLF4J objects ChatNova needs, so benchmarks run
+ * without a proxy. Every method does nothing and returns an empty value, except for the few
+ * answers a benchmark actually depends on.
+ */
+final class Stubs {
+    /**
+     * Returned by an {@link Answer} to fall back to the empty value
+     */
+    static final Object EMPTY = new Object();
+
+    /**
+     * Answers calls to a stub by method name
+     */
+    @FunctionalInterface
+    interface Answer {
+        Object answer(String method, Object[] args) throws Throwable;
+    }
+
+    private Stubs() {}
+
+    static Logger logger() {
+        return stub(Logger.class, (method, args) -> EMPTY);
+    }
+
+    static LuckPerms luckPerms() {
+        return stub(LuckPerms.class, (method, args) -> EMPTY);
+    }
+
+    static ProxyServer server() {
+        return stub(ProxyServer.class, (method, args) -> EMPTY);
+    }
+
+    /**
+     * A player whose messages go nowhere
+     */
+    static Player player(String username) {
+        UUID uuid = UUID.nameUUIDFromBytes(username.getBytes());
+        return stub(Player.class, (method, args) -> {
+            switch (method) {
+                case "getUniqueId":
+                    return uuid;
+                case "getUsername":
+                    return username;
+                default:
+                    return EMPTY;
+            }
+        });
+    }
+
+    static List<Player> players(int count) {
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(player("Player" + i));
+        }
+        return players;
+    }
+
+    /**
+     * A message manager reading a config file that only sets the MiniMessage flag
+     */
+    static MessageManager messageManager(boolean useMiniMessage) throws IOException {
+        return messageManager(useMiniMessage, new PlayerStateStore());
+    }
+
+    /**
+     * A message manager reading a config file that only sets the MiniMessage flag, whose
+     * recipients follow the given player state
+     */
+    static MessageManager messageManager(boolean useMiniMessage, PlayerStateStore playerState) throws IOException {
+        Path dataDirectory = Files.createTempDirectory("chatnova-benchmark");
+        Files.writeString(dataDirectory.resolve(Constants.CONFIG_FILE),
+                Constants.Config.USE_MINI_MESSAGE + ": " + useMiniMessage + "\n");
+
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger());
+        configManager.loadConfig();
+        return new MessageManager(configManager, luckPerms(), server(), playerState, logger());
+    }
+
+    /**
+     * Implement an interface with a dynamic proxy. Object methods use identity semantics.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return type.getSimpleName() + " stub";
+                        default:
+                            Object result = answer.answer(method.getName(), args);
+                            return result != EMPTY ? result : emptyValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static Object emptyValue(Class<?> type) {
+        if (type.isPrimitive() && type != void.class) {
+            // Zero of the right type, e.g. 0L or false
+            return Array.get(Array.newInstance(type, 1), 0);
+        } else if (type == Optional.class) {
+            return Optional.empty();
+        } else if (type == List.class) {
+            return List.of();
+        }
+        return null;
+    }
+}
@@ -1,22 +1,17 @@
 package me.dev_dio.chatnova;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
-import org.yaml.snakeyaml.Yaml;
 
 import com.google.inject.Inject;
 import com.velocitypowered.api.command.CommandManager;
@@ -24,20 +19,35 @@ import com.velocitypowered.api.command.CommandMeta;
 import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.event.Subscribe; // Import LiteBans API
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 
-import litebans.api.Database;
 import me.dev_dio.chatnova.commands.GcBlacklistCommand;
 import me.dev_dio.chatnova.commands.GcListBlacklistCommand;
 import me.dev_dio.chatnova.commands.GcMuteCommand;
 import me.dev_dio.chatnova.commands.GcReloadCommand;
+import me.dev_dio.chatnova.commands.GcStatsCommand;
 import me.dev_dio.chatnova.commands.GcToggleCommand;
 import me.dev_dio.chatnova.filter.ChatFilter;
+import me.dev_dio.chatnova.jfr.ConfigReloadEvent;
+import me.dev_dio.chatnova.listener.ConnectionListener;
+import me.dev_dio.chatnova.listener.LuckPermsListener;
 import me.dev_dio.chatnova.manager.ConfigManager;
+import me.dev_dio.chatnova.manager.ConfigSnapshot;
+import me.dev_dio.chatnova.manager.CooldownManager;
+import me.dev_dio.chatnova.manager.FileWatcher;
 import me.dev_dio.chatnova.manager.MessageManager;
+import me.dev_dio.chatnova.manager.MuteManager;
+import me.dev_dio.chatnova.manager.PlayerStateStore;
+import me.dev_dio.chatnova.manager.PrometheusExporter;
+import me.dev_dio.chatnova.pipeline.ChatPipeline;
+import me.dev_dio.chatnova.pipeline.ChatStats;
+import me.dev_dio.chatnova.storage.SqlStorage;
+import me.dev_dio.chatnova.storage.StorageBackend;
+import me.dev_dio.chatnova.storage.YamlStorage;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.LuckPermsProvider;
 
@@ -55,58 +65,210 @@ public class ChatNova {
     
     @Inject
     private Metrics.Factory metricsFactory;
+    
+    // Set when running outside Velocity, see the standalone constructor
+    private MuteManager.MuteSource muteSource;
 
     // Core managers
     private ConfigManager configManager;
     private MessageManager messageManager;
+    private MuteManager muteManager;
+    private CooldownManager cooldownManager;
     private ChatFilter chatFilter;
+    private ChatPipeline chatPipeline;
+    private PrometheusExporter prometheusExporter;
     private Metrics metrics;
     
     // Plugin state
-    private Set<String> blacklistedPlayers;
+    private final PlayerStateStore playerState = new PlayerStateStore();
+    private volatile StorageBackend storage;
     private LuckPerms luckPerms;
-    private Map<UUID, Long> cooldowns;
-    private boolean globalChatMuted;
-    private Set<UUID> hiddenGlobalChat;
+    
+    // Players whose settings are still being loaded, guarded by playerState
+    private final Set<UUID> pendingPlayerData = new HashSet<>();
+    
+    // Completed once storage is open and every data set is loaded
+    private volatile CompletableFuture<Void> dataLoaded = new CompletableFuture<>();
+    private volatile boolean ready;
+    
+    // Serializes /gcreload and reloads triggered by file changes
+    private final Object reloadLock = new Object();
+    private FileWatcher fileWatcher;
+    
+    private final SimpleCommand globalChatCommand = new GlobalChatCommand();
+    
+    public ChatNova() {
+        // Created by Velocity, dependencies are injected into the fields
+    }
+    
+    /**
+     * Create the plugin outside of Velocity, e.g. for load tests. Call {@link #initialize()}
+     * to load config and data; commands, listeners and bStats are not registered.
+     * @param muteSource Mute lookups used instead of LiteBans
+     */
+    public ChatNova(ProxyServer server, Logger logger, Path dataDirectory, LuckPerms luckPerms, MuteManager.MuteSource muteSource) {
+        this.server = server;
+        this.logger = logger;
+        this.dataDirectory = dataDirectory;
+        this.luckPerms = luckPerms;
+        this.muteSource = muteSource;
+    }
 
     @Subscribe
     public void onProxyInitialization(ProxyInitializeEvent event) {
-        initializeManagers();
-        initializeData();
-        loadAllData();
+        initialize();
         registerCommands();
+        registerListeners();
+        scheduleTasks();
         initializeBStats();
         
         logger.info(Constants.PLUGIN_NAME + " has been initialized!");
     }
     
+    /**
+     * Load config and start loading data in the background
+     * @return Completes once all data is loaded
+     */
+    public CompletableFuture<Void> initialize() {
+        initializeManagers();
+        initializeData();
+        loadAllData();
+        
+        // Scrapes read player state, so the endpoint starts once it exists
+        prometheusExporter = new PrometheusExporter(this, logger);
+        prometheusExporter.configure(configManager.getSnapshot());
+        return dataLoaded;
+    }
+    
+    @Subscribe
+    public void onProxyShutdown(ProxyShutdownEvent event) {
+        shutdown();
+    }
+    
+    /**
+     * Stop background work and write all pending data
+     */
+    public void shutdown() {
+        if (fileWatcher != null) {
+            fileWatcher.shutdown();
+        }
+        if (prometheusExporter != null) {
+            prometheusExporter.shutdown();
+        }
+        if (chatPipeline != null) {
+            chatPipeline.shutdown();
+        }
+        if (muteManager != null) {
+            muteManager.shutdown();
+        }
+        if (storage != null) {
+            storage.close();
+        }
+    }
+    
     private void initializeManagers() {
         // Initialize LuckPerms API
-        luckPerms = LuckPermsProvider.get();
+        if (luckPerms == null) {
+            luckPerms = LuckPermsProvider.get();
+        }
         
         // Initialize managers
         configManager = new ConfigManager(dataDirectory, logger);
-        messageManager = new MessageManager(configManager, luckPerms, server, logger);
+        messageManager = new MessageManager(configManager, luckPerms, server, playerState, logger);
         
         // Load configuration first
+        long start = System.currentTimeMillis();
         configManager.loadConfig();
+        logger.info("Loaded {} in {}ms", Constants.CONFIG_FILE, System.currentTimeMillis() - start);
+        
+        // Initialize LiteBans mute cache
+        muteManager = muteSource != null ? new MuteManager(logger, muteSource) : new MuteManager(logger);
+        muteManager.configure(configManager.getSnapshot());
+        
+        cooldownManager = new CooldownManager();
+        cooldownManager.configure(configManager.getSnapshot());
         
         // Initialize chat filter with configured max length
-        int maxLength = configManager.getInt(Constants.Config.CHAT_MAX_LENGTH, Constants.Defaults.MAX_MESSAGE_LENGTH);
-        chatFilter = new ChatFilter(maxLength);
+        chatFilter = new ChatFilter(configManager.getSnapshot().getMaxMessageLength());
+        
+        // Initialize the /gc processing pipeline
+        chatPipeline = new ChatPipeline(this, logger);
+        chatPipeline.configure(configManager.getSnapshot());
     }
     
     private void initializeData() {
-        blacklistedPlayers = new HashSet<>();
-        cooldowns = new ConcurrentHashMap<>();
-        globalChatMuted = false;
-        hiddenGlobalChat = new HashSet<>();
+        storage = createStorage(configManager.getSnapshot());
+    }
+    
+    private void openStorage() {
+        ConfigSnapshot config = configManager.getSnapshot();
+        try {
+            storage.open();
+        } catch (IOException | RuntimeException e) {
+            if (storage instanceof YamlStorage) {
+                logger.error("Failed to open data files", e);
+                return;
+            }
+            
+            // Keep the plugin usable with the data files if the database can't be opened
+            logger.error("Failed to open the database, falling back to YAML storage", e);
+            storage.close();
+            storage = new YamlStorage(dataDirectory, logger, playerState, config);
+            try {
+                storage.open();
+            } catch (IOException | RuntimeException fallbackError) {
+                logger.error("Failed to open data files", fallbackError);
+            }
+        }
+    }
+    
+    private StorageBackend createStorage(ConfigSnapshot config) {
+        if (config.isH2Storage()) {
+            logger.info("Using H2 database storage");
+            return new SqlStorage(dataDirectory, logger);
+        }
+        return new YamlStorage(dataDirectory, logger, playerState, config);
     }
     
+    /**
+     * Open storage and load every data set in parallel in the background, so the proxy doesn't
+     * wait for large data files. /gc and commands that change data answer "starting up" until
+     * everything is loaded.
+     */
     private void loadAllData() {
-        loadBlacklist();
-        loadBannedWords();
-        loadHiddenGlobalChat();
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(3, runnable -> {
+            Thread thread = new Thread(runnable, "ChatNova-Startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        // Storage must be open, and any leftover journals applied, before data can be read
+        dataLoaded = CompletableFuture.runAsync(() -> timed("storage", this::openStorage), executor)
+                .thenCompose(ignored -> CompletableFuture.allOf(
+                        CompletableFuture.runAsync(() -> timed("blacklist", this::loadBlacklist), executor),
+                        CompletableFuture.runAsync(() -> timed("banned words", this::loadBannedWords), executor),
+                        CompletableFuture.runAsync(() -> timed("hidden global chat", this::loadHiddenGlobalChat), executor)))
+                .handle((ignored, error) -> {
+                    executor.shutdown();
+                    if (error != null) {
+                        logger.error("Failed to load data", error);
+                    }
+                    
+                    // Start watching only now, so file reloads never race the initial loads
+                    startFileWatcher();
+                    ready = true;
+                    logger.info("Data loaded in {}ms", System.currentTimeMillis() - start);
+                    
+                    // Completes normally even after an error, joining players still wait on it
+                    return null;
+                });
+    }
+    
+    private void timed(String name, Runnable load) {
+        long start = System.currentTimeMillis();
+        load.run();
+        logger.info("Loaded {} in {}ms", name, System.currentTimeMillis() - start);
     }
     
     private void registerCommands() {
@@ -117,7 +279,7 @@ public class ChatNova {
                 .aliases("globalchat")
                 .plugin(this)
                 .build();
-        commandManager.register(gcMeta, new GlobalChatCommand());
+        commandManager.register(gcMeta, globalChatCommand);
         
         // Register admin commands
         commandManager.register("gcmute", new GcMuteCommand(this));
@@ -125,6 +287,71 @@ public class ChatNova {
         commandManager.register("gcreload", new GcReloadCommand(this));
         commandManager.register("gclistblacklist", new GcListBlacklistCommand(this));
         commandManager.register("gctoggle", new GcToggleCommand(this));
+        commandManager.register("gcstats", new GcStatsCommand(this));
+    }
+    
+    private void registerListeners() {
+        server.getEventManager().register(this, new ConnectionListener(this));
+        new LuckPermsListener(this).register(luckPerms);
+        
+        // Players may already be online if the plugin was loaded late
+        messageManager.getRecipientIndex().setOnlinePlayers(server.getAllPlayers());
+        
+        if (server.getPluginManager().isLoaded("litebans")) {
+            muteManager.registerLiteBansEvents();
+        }
+    }
+    
+    private void scheduleTasks() {
+        // Expired cooldowns of players who are still online are only removed by this sweep
+        server.getScheduler().buildTask(this, cooldownManager::sweep)
+                .repeat(Constants.COOLDOWN_SWEEP_INTERVAL, TimeUnit.SECONDS)
+                .schedule();
+    }
+    
+    private void startFileWatcher() {
+        ConfigSnapshot config = configManager.getSnapshot();
+        if (!config.isAutoReload()) {
+            return;
+        }
+        
+        fileWatcher = new FileWatcher(dataDirectory, logger, config.getAutoReloadDelay(), storage::isOwnWrite);
+        watchFile(Constants.CONFIG_FILE, this::reloadSettings);
+        watchFile(Constants.BANNED_WORDS_FILE, this::loadBannedWords);
+        
+        // Only the YAML backend reads player data from files that can be edited by hand
+        if (storage instanceof YamlStorage && storage.supportsReload()) {
+            watchFile(Constants.BLACKLIST_FILE, () -> {
+                synchronized (playerState) {
+                    loadBlacklist();
+                }
+            });
+            watchFile(Constants.HIDDEN_GC_FILE, () -> {
+                synchronized (playerState) {
+                    loadHiddenGlobalChat();
+                }
+            });
+        }
+        
+        try {
+            fileWatcher.start();
+        } catch (IOException e) {
+            logger.error("Failed to watch the plugin folder for changes, use /gcreload instead", e);
+            fileWatcher = null;
+        }
+    }
+    
+    /**
+     * Run a reload whenever a file is edited, serialized with every other reload
+     */
+    private void watchFile(String fileName, Runnable reload) {
+        fileWatcher.watch(fileName, () -> {
+            ConfigReloadEvent event = ConfigReloadEvent.start();
+            synchronized (reloadLock) {
+                reload.run();
+            }
+            event.finish(ConfigReloadEvent.TRIGGER_FILE_CHANGE, fileName);
+        });
     }
     
     private void initializeBStats() {
@@ -138,11 +365,22 @@ public class ChatNova {
         
         // Track if MiniMessage is enabled
         metrics.addCustomChart(new Metrics.SimplePie("minimessage_enabled", () -> 
-            configManager.getBoolean(Constants.Config.USE_MINI_MESSAGE, Constants.Defaults.USE_MINI_MESSAGE) ? "Enabled" : "Disabled"
+            configManager.getSnapshot().isUseMiniMessage() ? "Enabled" : "Disabled"
         ));
         
         // Track blacklisted players count
-        metrics.addCustomChart(new Metrics.SingleLineChart("blacklisted_players", () -> blacklistedPlayers.size()));
+        metrics.addCustomChart(new Metrics.SingleLineChart("blacklisted_players", () -> playerState.getBlacklistedPlayers().size()));
+        
+        // Chat activity since the previous submission, each counter is reset as it is read
+        ChatStats stats = chatPipeline.getStats();
+        metrics.addCustomChart(new Metrics.SingleLineChart("chat_messages", () -> (int) stats.sampleAccepted()));
+        metrics.addCustomChart(new Metrics.AdvancedPie("chat_rejections", stats::sampleRejected));
+        metrics.addCustomChart(new Metrics.SingleLineChart("average_fan_out", () -> (int) Math.round(stats.sampleAverageRecipients())));
+        
+        // Track how banned words are filtered
+        metrics.addCustomChart(new Metrics.SimplePie("banned_words_action", () ->
+            configManager.getSnapshot().isCensorBannedWords() ? "Censor" : "Block"
+        ));
         
         logger.info("BStats metrics initialized successfully!");
     }
@@ -156,144 +394,214 @@ public class ChatNova {
         return messageManager;
     }
     
+    public MuteManager getMuteManager() {
+        return muteManager;
+    }
+    
+    public CooldownManager getCooldownManager() {
+        return cooldownManager;
+    }
+    
     public ChatFilter getChatFilter() {
         return chatFilter;
     }
     
+    public ChatPipeline getChatPipeline() {
+        return chatPipeline;
+    }
+    
+    /**
+     * Get the /gc command, e.g. to drive it without a command manager
+     */
+    public SimpleCommand getGlobalChatCommand() {
+        return globalChatCommand;
+    }
+    
     public ProxyServer getServer() {
         return server;
     }
+    
+    public PlayerStateStore getPlayerState() {
+        return playerState;
+    }
+    
+    public StorageBackend getStorage() {
+        return storage;
+    }
+    
+    /**
+     * Whether startup loading has finished and data can be used and changed
+     */
+    public boolean isReady() {
+        return ready;
+    }
 
     // Player management methods
     public void blacklistPlayer(String playerName) {
-        blacklistedPlayers.add(playerName.toLowerCase());
-        saveBlacklist();
+        synchronized (playerState) {
+            if (playerState.addBlacklisted(playerName)) {
+                storage.setBlacklisted(playerName, true);
+            }
+        }
     }
 
     public void unblacklistPlayer(String playerName) {
-        blacklistedPlayers.remove(playerName.toLowerCase());
-        saveBlacklist();
+        synchronized (playerState) {
+            if (playerState.removeBlacklisted(playerName)) {
+                storage.setBlacklisted(playerName, false);
+            }
+        }
     }
 
     public boolean isBlacklisted(String playerName) {
-        return blacklistedPlayers.contains(playerName.toLowerCase());
+        return playerState.isBlacklisted(playerName);
     }
 
     public Set<String> getBlacklistedPlayers() {
-        return new HashSet<>(blacklistedPlayers);
+        return playerState.getBlacklistedPlayers();
     }
 
     // Global chat state management
     public boolean isGlobalChatMuted() {
-        return globalChatMuted;
+        return playerState.isGlobalChatMuted();
     }
 
     public void toggleGlobalChatMute() {
-        globalChatMuted = !globalChatMuted;
+        playerState.toggleGlobalChatMute();
+    }
+
+    public Set<UUID> getHiddenGlobalChat() {
+        return playerState.getHiddenGlobalChat();
     }
 
     public boolean isGlobalChatHidden(UUID playerUuid) {
-        return hiddenGlobalChat.contains(playerUuid);
+        return playerState.isGlobalChatHidden(playerUuid);
     }
 
     public boolean toggleGlobalChatVisibility(UUID playerUuid) {
-        if (hiddenGlobalChat.contains(playerUuid)) {
-            hiddenGlobalChat.remove(playerUuid);
-            saveHiddenGlobalChat();
-            return false; // Now showing global chat
-        } else {
-            hiddenGlobalChat.add(playerUuid);
-            saveHiddenGlobalChat();
-            return true; // Now hiding global chat
+        boolean hidden;
+        // Keep storage in the same order as the store when toggles race
+        synchronized (playerState) {
+            hidden = playerState.toggleGlobalChatHidden(playerUuid);
+            storage.setGlobalChatHidden(playerUuid, hidden);
+            
+            // The toggle wins over settings that are still being loaded
+            pendingPlayerData.remove(playerUuid);
+        }
+        return hidden;
+    }
+    
+    /**
+     * Load a joining player's settings in the background if the storage backend only keeps
+     * settings of online players in memory
+     */
+    public void loadPlayerData(UUID playerUuid) {
+        // Players joining during startup are loaded once storage is open
+        dataLoaded.thenRun(() -> {
+            if (!storage.isPlayerDataLazy()) {
+                return;
+            }
+            
+            synchronized (playerState) {
+                pendingPlayerData.add(playerUuid);
+            }
+            schedulePlayerDataLoad(playerUuid);
+        });
+    }
+    
+    private void schedulePlayerDataLoad(UUID playerUuid) {
+        server.getScheduler().buildTask(this, () -> {
+            boolean hidden;
+            try {
+                hidden = storage.loadGlobalChatHidden(playerUuid);
+            } catch (IOException e) {
+                logger.error("Failed to load settings of " + playerUuid, e);
+                return;
+            }
+            
+            synchronized (playerState) {
+                // Skip if the player left or changed the setting while it was loading
+                if (pendingPlayerData.remove(playerUuid) && server.getPlayer(playerUuid).isPresent()) {
+                    playerState.setGlobalChatHidden(playerUuid, hidden);
+                }
+            }
+        }).schedule();
+    }
+    
+    /**
+     * Forget a leaving player's settings if they are loaded again on the next join
+     */
+    public void unloadPlayerData(UUID playerUuid) {
+        if (!storage.isPlayerDataLazy()) {
+            return;
+        }
+        
+        synchronized (playerState) {
+            pendingPlayerData.remove(playerUuid);
+            playerState.setGlobalChatHidden(playerUuid, false);
         }
     }
 
     // Cooldown management
     public boolean hasCooldown(UUID playerUuid) {
-        if (!cooldowns.containsKey(playerUuid)) {
-            return false;
-        }
-        
-        long currentTime = System.currentTimeMillis();
-        long lastUsed = cooldowns.get(playerUuid);
-        long cooldownTime = getCooldownTime(playerUuid) * 1000L;
-        
-        return (currentTime - lastUsed) < cooldownTime;
+        return cooldownManager.getRemainingMillis(playerUuid) > 0;
     }
     
     public long getRemainingCooldown(UUID playerUuid) {
-        if (!cooldowns.containsKey(playerUuid)) {
-            return 0;
-        }
-        
-        long currentTime = System.currentTimeMillis();
-        long lastUsed = cooldowns.get(playerUuid);
-        long cooldownTime = getCooldownTime(playerUuid) * 1000L;
-        long remaining = cooldownTime - (currentTime - lastUsed);
-        
-        return Math.max(0, remaining / 1000);
+        return cooldownManager.getRemainingMillis(playerUuid) / 1000;
     }
     
-    public void setCooldown(UUID playerUuid) {
-        cooldowns.put(playerUuid, System.currentTimeMillis());
-    }
-
-    private int getCooldownTime(UUID playerUuid) {
-        Player player = server.getPlayer(playerUuid).orElse(null);
-        if (player == null) {
-            return configManager.getInt(Constants.Config.COOLDOWN_DEFAULT, Constants.Defaults.COOLDOWN_DEFAULT);
-        }
-        
-        if (player.hasPermission(Constants.Permissions.GC_COOLDOWN_VIP)) {
-            return configManager.getInt(Constants.Config.COOLDOWN_VIP, Constants.Defaults.COOLDOWN_VIP);
-        } else if (player.hasPermission(Constants.Permissions.GC_COOLDOWN_PREMIUM)) {
-            return configManager.getInt(Constants.Config.COOLDOWN_PREMIUM, Constants.Defaults.COOLDOWN_PREMIUM);
-        } else {
-            return configManager.getInt(Constants.Config.COOLDOWN_DEFAULT, Constants.Defaults.COOLDOWN_DEFAULT);
-        }
+    public void setCooldown(Player player) {
+        cooldownManager.start(player);
     }
 
     // Utility methods
     public boolean isPlayerMuted(UUID uuid) {
-        try {
-            return Database.get().isPlayerMuted(uuid, null);
-        } catch (Exception e) {
-            logger.warn("Could not check mute status for player {}: {}", uuid, e.getMessage());
-            return false;
-        }
+        return muteManager.isMuted(uuid);
     }
 
     public void reloadConfig() {
+        ConfigReloadEvent event = ConfigReloadEvent.start();
+        synchronized (reloadLock) {
+            reloadSettings();
+            loadBannedWords();
+            
+            // Some backends keep the in-memory state authoritative until restart
+            if (storage.supportsReload()) {
+                synchronized (playerState) {
+                    // Pending writes must be stored before the data is read back
+                    storage.flush();
+                    loadBlacklist();
+                    loadHiddenGlobalChat();
+                }
+            }
+        }
+        event.finish(ConfigReloadEvent.TRIGGER_COMMAND, storage.supportsReload()
+                ? String.join(", ", Constants.CONFIG_FILE, Constants.BANNED_WORDS_FILE, Constants.BLACKLIST_FILE, Constants.HIDDEN_GC_FILE)
+                : String.join(", ", Constants.CONFIG_FILE, Constants.BANNED_WORDS_FILE));
+    }
+    
+    /**
+     * Reload config.yml and pass the new settings to every component
+     */
+    private void reloadSettings() {
         configManager.reloadConfig();
+        ConfigSnapshot config = configManager.getSnapshot();
         
-        // Reload chat filter with new max length
-        int maxLength = configManager.getInt(Constants.Config.CHAT_MAX_LENGTH, Constants.Defaults.MAX_MESSAGE_LENGTH);
-        chatFilter = new ChatFilter(maxLength);
-        loadBannedWords();
-        
-        loadBlacklist();
-        loadHiddenGlobalChat();
+        chatFilter.setMaxMessageLength(config.getMaxMessageLength());
+        storage.configure(config);
+        chatPipeline.configure(config);
+        muteManager.configure(config);
+        cooldownManager.configure(config);
+        prometheusExporter.configure(config);
+        messageManager.getComponentCache().clear();
     }
 
-    // Data loading methods
+    // Data loading methods. Once players can change data, callers hold the state lock so no
+    // change is written while the data is read back; at startup the loads run in parallel.
     private void loadBlacklist() {
         try {
-            Path blacklistPath = dataDirectory.resolve(Constants.BLACKLIST_FILE);
-            createFileIfNotExists(blacklistPath, Constants.YamlKeys.BLACKLISTED_PLAYERS + ": []");
-            
-            Yaml yaml = new Yaml();
-            try (Reader reader = Files.newBufferedReader(blacklistPath)) {
-                Map<String, Object> data = yaml.load(reader);
-                
-                if (data != null && data.containsKey(Constants.YamlKeys.BLACKLISTED_PLAYERS)) {
-                    @SuppressWarnings("unchecked")
-                    List<String> loadedBlacklist = (List<String>) data.get(Constants.YamlKeys.BLACKLISTED_PLAYERS);
-                    
-                    blacklistedPlayers = new HashSet<>(loadedBlacklist.stream()
-                            .map(String::toLowerCase)
-                            .collect(Collectors.toSet()));
-                }
-            }
+            playerState.replaceBlacklist(storage.loadBlacklist());
         } catch (IOException e) {
             logger.error("Failed to load blacklist", e);
         }
@@ -301,22 +609,10 @@ public class ChatNova {
 
     private void loadHiddenGlobalChat() {
         try {
-            Path hiddenGcPath = dataDirectory.resolve(Constants.HIDDEN_GC_FILE);
-            createFileIfNotExists(hiddenGcPath, Constants.YamlKeys.HIDDEN_PLAYERS + ": []");
-            
-            Yaml yaml = new Yaml();
-            try (Reader reader = Files.newBufferedReader(hiddenGcPath)) {
-                Map<String, Object> data = yaml.load(reader);
-                
-                if (data != null && data.containsKey(Constants.YamlKeys.HIDDEN_PLAYERS)) {
-                    @SuppressWarnings("unchecked")
-                    List<String> hiddenPlayerStrings = (List<String>) data.get(Constants.YamlKeys.HIDDEN_PLAYERS);
-                    
-                    hiddenGlobalChat = new HashSet<>(hiddenPlayerStrings.stream()
-                            .map(UUID::fromString)
-                            .collect(Collectors.toSet()));
-                }
-            }
+            Set<UUID> onlinePlayers = server.getAllPlayers().stream()
+                    .map(Player::getUniqueId)
+                    .collect(Collectors.toSet());
+            playerState.replaceHiddenGlobalChat(storage.loadHiddenGlobalChat(onlinePlayers));
         } catch (IOException e) {
             logger.error("Failed to load hidden global chat data", e);
         }
@@ -324,75 +620,27 @@ public class ChatNova {
 
     private void loadBannedWords() {
         try {
-            Path bannedWordsPath = dataDirectory.resolve(Constants.BANNED_WORDS_FILE);
-            createFileIfNotExists(bannedWordsPath, Constants.YamlKeys.BANNED_WORDS + ": []");
-            
-            Yaml yaml = new Yaml();
-            try (Reader reader = Files.newBufferedReader(bannedWordsPath)) {
-                Map<String, Object> data = yaml.load(reader);
-                if (data != null && data.containsKey(Constants.YamlKeys.BANNED_WORDS)) {
-                    @SuppressWarnings("unchecked")
-                    List<String> words = (List<String>) data.get(Constants.YamlKeys.BANNED_WORDS);
-                    words.forEach(chatFilter::addBannedWord);
-                }
+            // Only the difference is applied, unchanged lists keep the current matcher
+            if (chatFilter.updateBannedWords(storage.loadBannedWords())) {
+                logger.info("Loaded {} banned words", chatFilter.getMatcher().getWordCount());
             }
         } catch (IOException e) {
             logger.error("Failed to load banned words", e);
         }
     }
 
-    // Data saving methods
-    private void saveBlacklist() {
-        try {
-            Path blacklistPath = dataDirectory.resolve(Constants.BLACKLIST_FILE);
-            Map<String, Object> data = new HashMap<>();
-            data.put(Constants.YamlKeys.BLACKLISTED_PLAYERS, new ArrayList<>(blacklistedPlayers));
-            
-            saveYamlFile(blacklistPath, data);
-        } catch (IOException e) {
-            logger.error("Failed to save blacklist", e);
-        }
-    }
-
-    private void saveHiddenGlobalChat() {
-        try {
-            Path hiddenGcPath = dataDirectory.resolve(Constants.HIDDEN_GC_FILE);
-            Map<String, Object> data = new HashMap<>();
-            
-            List<String> hiddenPlayerStrings = hiddenGlobalChat.stream()
-                    .map(UUID::toString)
-                    .collect(Collectors.toList());
-            data.put(Constants.YamlKeys.HIDDEN_PLAYERS, hiddenPlayerStrings);
-            
-            saveYamlFile(hiddenGcPath, data);
-        } catch (IOException e) {
-            logger.error("Failed to save hidden global chat data", e);
-        }
-    }
-
-    // Utility methods for file operations
-    private void createFileIfNotExists(Path filePath, String defaultContent) throws IOException {
-        if (!Files.exists(filePath)) {
-            Files.createDirectories(dataDirectory);
-            try (Writer writer = Files.newBufferedWriter(filePath)) {
-                writer.write(defaultContent);
-            }
-        }
-    }
-
-    private void saveYamlFile(Path filePath, Map<String, Object> data) throws IOException {
-        Yaml yaml = new Yaml();
-        try (Writer writer = Files.newBufferedWriter(filePath)) {
-            yaml.dump(data, writer);
-        }
-    }
-
     // Inner command classes
     private class GlobalChatCommand implements SimpleCommand {
         @Override
         public void execute(SimpleCommand.Invocation invocation) {
             String[] args = invocation.arguments();
             
+            // Recipients and filters aren't known until startup loading has finished
+            if (!ready) {
+                messageManager.sendConfigMessage(invocation.source(), Constants.Messages.STARTING_UP, Constants.Defaults.STARTING_UP_MSG);
+                return;
+            }
+            
             // Handle console usage
             if (!(invocation.source() instanceof Player)) {
                 if (args.length == 0) {
@@ -401,81 +649,12 @@ public class ChatNova {
                 }
                 
                 String message = String.join(" ", args);
-                messageManager.sendConsoleGlobalMessage(message, hiddenGlobalChat);
+                messageManager.sendConsoleGlobalMessage(message);
                 return;
             }
             
-            Player player = (Player) invocation.source();
-            
-            // Permission check
-            if (!player.hasPermission(Constants.Permissions.GC_USE)) {
-                messageManager.sendConfigMessage(player, Constants.Messages.NO_PERMISSION, Constants.Defaults.NO_PERMISSION_MSG);
-                return;
-            }
-
-            // Blacklist check
-            if (isBlacklisted(player.getUsername().toLowerCase())) {
-                messageManager.sendConfigMessage(player, Constants.Messages.BLACKLISTED, Constants.Defaults.BLACKLISTED_MSG);
-                return;
-            }
-
-            // Mute check
-            if (isPlayerMuted(player.getUniqueId())) {
-                messageManager.sendConfigMessage(player, Constants.Messages.MUTED, Constants.Defaults.MUTED_MSG);
-                return;
-            }
-
-            // Global mute check
-            if (globalChatMuted && !player.hasPermission(Constants.Permissions.GC_BYPASS_MUTE)) {
-                messageManager.sendConfigMessage(player, Constants.Messages.GLOBAL_MUTED, Constants.Defaults.GLOBAL_MUTED_MSG);
-                return;
-            }
-
-            if (args.length == 0) {
-                messageManager.sendConfigMessage(player, Constants.Messages.USAGE, Constants.Defaults.USAGE_MSG);
-                return;
-            }
-
-            String message = String.join(" ", args);
-
-            // Cooldown check
-            if (hasCooldown(player.getUniqueId()) && !player.hasPermission(Constants.Permissions.GC_BYPASS_COOLDOWN)) {
-                long remainingTime = getRemainingCooldown(player.getUniqueId());
-                String cooldownMessage = messageManager.getFormattedMessage(
-                        Constants.Messages.COOLDOWN, 
-                        Constants.Defaults.COOLDOWN_MSG,
-                        "{time}", String.valueOf(remainingTime)
-                );
-                messageManager.sendMessage(player, cooldownMessage);
-                return;
-            }
-
-            // Message length check
-            if (chatFilter.exceedsMaxLength(message)) {
-                String lengthMessage = messageManager.getFormattedMessage(
-                        Constants.Messages.MESSAGE_TOO_LONG,
-                        Constants.Defaults.MESSAGE_TOO_LONG_MSG,
-                        "{max}", String.valueOf(chatFilter.getMaxMessageLength())
-                );
-                messageManager.sendMessage(player, lengthMessage);
-                return;
-            }
-
-            // Banned words check
-            if (chatFilter.containsBannedWords(message)) {
-                messageManager.sendConfigMessage(player, Constants.Messages.BANNED_WORDS, Constants.Defaults.BANNED_WORDS_MSG);
-                return;
-            }
-
-            // URL check
-            if (chatFilter.containsUrl(message) && !player.hasPermission(Constants.Permissions.GC_BYPASS_URL)) {
-                messageManager.sendConfigMessage(player, Constants.Messages.NO_URLS, Constants.Defaults.NO_URLS_MSG);
-                return;
-            }
-
-            // Send the message
-            messageManager.sendGlobalMessage(player, message, hiddenGlobalChat);
-            setCooldown(player.getUniqueId());
+            // Everything else happens in the pipeline stages
+            chatPipeline.submit((Player) invocation.source(), String.join(" ", args));
         }
     }
 
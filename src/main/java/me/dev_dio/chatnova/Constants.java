@@ -11,13 +11,52 @@ public final class Constants {
     public static final String BANNED_WORDS_FILE = "banned-words.yml";
     public static final String HIDDEN_GC_FILE = "hidden_gc.yml";
     
+    // Pipeline Modes
+    public static final String PIPELINE_MODE_ASYNC = "async";
+    public static final String PIPELINE_MODE_INLINE = "inline";
+    
+    // Banned Word Actions
+    public static final String BANNED_WORDS_BLOCK = "block";
+    public static final String BANNED_WORDS_CENSOR = "censor";
+    
+    // Mute Lookup Failure Modes
+    public static final String MUTE_FAIL_OPEN = "open";
+    public static final String MUTE_FAIL_CLOSED = "closed";
+    
+    // Storage Modes
+    public static final String STORAGE_MODE_YAML = "yaml";
+    public static final String STORAGE_MODE_JOURNAL = "journal";
+    public static final String STORAGE_BACKEND_YAML = "yaml";
+    public static final String STORAGE_BACKEND_H2 = "h2";
+    
+    // Scheduled Tasks (seconds)
+    public static final long COOLDOWN_SWEEP_INTERVAL = 60;
+    
     // Configuration Paths
     public static final class Config {
         public static final String CHAT_MAX_LENGTH = "chat.max-length";
+        public static final String BANNED_WORDS_ACTION = "chat.banned-words-action";
         public static final String USE_MINI_MESSAGE = "use-minimessage";
         public static final String COOLDOWN_DEFAULT = "cooldown.default";
         public static final String COOLDOWN_PREMIUM = "cooldown.premium";
         public static final String COOLDOWN_VIP = "cooldown.vip";
+        public static final String PIPELINE_MODE = "chat.pipeline.mode";
+        public static final String PIPELINE_THREADS = "chat.pipeline.threads";
+        public static final String PIPELINE_QUEUE_SIZE = "chat.pipeline.queue-size";
+        public static final String MUTE_CACHE_TTL = "litebans.cache-ttl";
+        public static final String MUTE_LOOKUP_TIMEOUT = "litebans.lookup-timeout";
+        public static final String MUTE_FAIL_MODE = "litebans.fail-mode";
+        public static final String MUTE_BREAKER_THRESHOLD = "litebans.breaker.failure-threshold";
+        public static final String MUTE_BREAKER_COOLDOWN = "litebans.breaker.cooldown";
+        public static final String STORAGE_BACKEND = "storage.backend";
+        public static final String STORAGE_SAVE_DELAY = "storage.save-delay";
+        public static final String STORAGE_MODE = "storage.mode";
+        public static final String JOURNAL_SYNC_INTERVAL = "storage.journal.sync-interval";
+        public static final String JOURNAL_COMPACT_SIZE = "storage.journal.compact-size";
+        public static final String AUTO_RELOAD = "auto-reload.enabled";
+        public static final String AUTO_RELOAD_DELAY = "auto-reload.delay";
+        public static final String PROMETHEUS_ENABLED = "prometheus.enabled";
+        public static final String PROMETHEUS_PORT = "prometheus.port";
     }
     
     // Format Paths
@@ -41,6 +80,8 @@ public final class Constants {
         public static final String NO_URLS = "messages.no-urls";
         public static final String GC_HIDDEN = "messages.gc-hidden";
         public static final String GC_SHOWN = "messages.gc-shown";
+        public static final String QUEUE_FULL = "messages.queue-full";
+        public static final String STARTING_UP = "messages.starting-up";
     }
     
     // Permissions
@@ -50,6 +91,7 @@ public final class Constants {
         public static final String GC_BLACKLIST = "gc.blacklist";
         public static final String GC_RELOAD = "gc.reload";
         public static final String GC_TOGGLE = "gc.toggle";
+        public static final String GC_STATS = "gc.stats";
         public static final String GC_BYPASS_MUTE = "gc.bypass.mute";
         public static final String GC_BYPASS_COOLDOWN = "gc.bypass.cooldown";
         public static final String GC_BYPASS_URL = "gc.bypass.url";
@@ -60,10 +102,28 @@ public final class Constants {
     // Default Values
     public static final class Defaults {
         public static final int MAX_MESSAGE_LENGTH = 100;
+        public static final String BANNED_WORDS_ACTION = BANNED_WORDS_BLOCK;
         public static final int COOLDOWN_DEFAULT = 10;
         public static final int COOLDOWN_PREMIUM = 5;
         public static final int COOLDOWN_VIP = 2;
         public static final boolean USE_MINI_MESSAGE = false;
+        public static final String PIPELINE_MODE = PIPELINE_MODE_ASYNC;
+        public static final int PIPELINE_THREADS = 2;
+        public static final int PIPELINE_QUEUE_SIZE = 1024;
+        public static final int MUTE_CACHE_TTL = 30;
+        public static final int MUTE_LOOKUP_TIMEOUT = 250;
+        public static final String MUTE_FAIL_MODE = MUTE_FAIL_OPEN;
+        public static final int MUTE_BREAKER_THRESHOLD = 5;
+        public static final int MUTE_BREAKER_COOLDOWN = 30;
+        public static final String STORAGE_BACKEND = STORAGE_BACKEND_YAML;
+        public static final int STORAGE_SAVE_DELAY = 1000;
+        public static final String STORAGE_MODE = STORAGE_MODE_YAML;
+        public static final int JOURNAL_SYNC_INTERVAL = 200;
+        public static final int JOURNAL_COMPACT_SIZE = 1048576;
+        public static final boolean AUTO_RELOAD = false;
+        public static final int AUTO_RELOAD_DELAY = 500;
+        public static final boolean PROMETHEUS_ENABLED = false;
+        public static final int PROMETHEUS_PORT = 9225;
         
         // Default Messages
         public static final String NO_PERMISSION_MSG = "&cYou don't have permission to use this command!";
@@ -79,6 +139,8 @@ public final class Constants {
         public static final String CONSOLE_FORMAT_MSG = "Administrator: &c{message}";
         public static final String GC_HIDDEN_MSG = "&aGlobal chat has been hidden. You will not see global chat messages.";
         public static final String GC_SHOWN_MSG = "&aGlobal chat has been shown. You will now see global chat messages.";
+        public static final String QUEUE_FULL_MSG = "&cGlobal chat is busy right now, please try again in a moment.";
+        public static final String STARTING_UP_MSG = "&eGlobal chat is still starting up, please try again in a moment.";
     }
     
     // YAML Keys
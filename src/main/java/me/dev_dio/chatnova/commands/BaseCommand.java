@@ -56,6 +56,13 @@ public abstract class BaseCommand implements SimpleCommand {
      */
     protected abstract String getRequiredPermission();
     
+    /**
+     * Whether the command reads or changes loaded data and must wait for startup loading
+     */
+    protected boolean requiresData() {
+        return true;
+    }
+    
     @Override
     public void execute(Invocation invocation) {
         String permission = getRequiredPermission();
@@ -65,6 +72,11 @@ public abstract class BaseCommand implements SimpleCommand {
             return;
         }
         
+        if (requiresData() && !plugin.isReady()) {
+            sendConfigMessage(invocation.source(), Constants.Messages.STARTING_UP, Constants.Defaults.STARTING_UP_MSG);
+            return;
+        }
+        
         executeCommand(invocation);
     }
 } 
\ No newline at end of file
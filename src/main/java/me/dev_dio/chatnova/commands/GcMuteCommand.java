@@ -14,6 +14,12 @@ public class GcMuteCommand extends BaseCommand {
         return Constants.Permissions.GC_MUTE;
     }
     
+    @Override
+    protected boolean requiresData() {
+        // The mute flag isn't stored, so it can be toggled while data is loading
+        return false;
+    }
+    
     @Override
     protected void executeCommand(Invocation invocation) {
         plugin.toggleGlobalChatMute();
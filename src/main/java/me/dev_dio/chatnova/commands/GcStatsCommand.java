@@ -0,0 +1,103 @@
+package me.dev_dio.chatnova.commands;
+
+import com.velocitypowered.api.command.CommandSource;
+
+import me.dev_dio.chatnova.ChatNova;
+import me.dev_dio.chatnova.Constants;
+import me.dev_dio.chatnova.filter.BannedWordMatcher;
+import me.dev_dio.chatnova.pipeline.ChatStats;
+import me.dev_dio.chatnova.util.Histogram;
+
+public class GcStatsCommand extends BaseCommand {
+
+    public GcStatsCommand(ChatNova plugin) {
+        super(plugin);
+    }
+
+    @Override
+    protected String getRequiredPermission() {
+        return Constants.Permissions.GC_STATS;
+    }
+
+    @Override
+    protected boolean requiresData() {
+        // Useful to watch startup itself
+        return false;
+    }
+
+    @Override
+    protected void executeCommand(Invocation invocation) {
+        CommandSource source = invocation.source();
+        ChatStats stats = plugin.getChatPipeline().getStats();
+
+        if (invocation.arguments().length > 0 && invocation.arguments()[0].equalsIgnoreCase("reset")) {
+            stats.reset();
+            sendMessage(source, "&a" + Constants.PLUGIN_NAME + " statistics have been reset.");
+            return;
+        }
+
+        long accepted = stats.getAccepted();
+        long rejected = stats.getRejected();
+        double seconds = Math.max(1, System.currentTimeMillis() - stats.getStartedAt()) / 1000.0;
+
+        sendMessage(source, "&e" + Constants.PLUGIN_NAME + " statistics &7(last " + formatDuration((long) seconds) + ", &f/gcstats reset&7 to clear)");
+        sendMessage(source, String.format("&7Messages: &a%d &7accepted, &c%d &7rejected, &f%.2f&7/s accepted, &f%.2f&7/s total",
+                accepted, rejected, accepted / seconds, (accepted + rejected) / seconds));
+
+        if (rejected > 0) {
+            StringBuilder reasons = new StringBuilder("&7Rejected by reason:");
+            for (ChatStats.RejectReason reason : ChatStats.RejectReason.values()) {
+                long count = stats.getRejected(reason);
+                if (count > 0) {
+                    reasons.append(" &f").append(reason.getDisplayName()).append(" &7").append(count);
+                }
+            }
+            sendMessage(source, reasons.toString());
+        }
+
+        // Latencies in milliseconds
+        sendMessage(source, "&7Latency ms &8(p50 / p99 / p999 / max, count)");
+        for (ChatStats.Stage stage : ChatStats.Stage.values()) {
+            sendLatency(source, stage.getDisplayName(), stats.getStage(stage));
+        }
+        sendLatency(source, "end-to-end", stats.getTotal());
+
+        Histogram recipients = stats.getRecipients();
+        sendMessage(source, String.format("&7Recipients per broadcast: &flast %d&7, avg &f%.1f&7, p99 &f%d&7, max &f%d",
+                stats.getLastRecipients(), recipients.getMean(), recipients.getPercentile(0.99), recipients.getMax()));
+
+        // Structure sizes, to spot leaks and runaway growth
+        BannedWordMatcher matcher = plugin.getChatFilter().getMatcher();
+        sendMessage(source, String.format("&7Queue: &f%d &7waiting", plugin.getChatPipeline().getQueuedMessages()));
+        sendMessage(source, String.format("&7Cooldowns &f%d&7, hidden &f%d&7, blacklist &f%d&7, online recipients &f%d",
+                plugin.getCooldownManager().size(),
+                plugin.getHiddenGlobalChat().size(),
+                plugin.getBlacklistedPlayers().size(),
+                messageManager.getRecipientIndex().getOnlineCount()));
+        sendMessage(source, String.format("&7Banned words &f%d &7(%d states)&7, mute cache &f%d&7, prefix cache &f%d&7, header cache &f%d",
+                matcher.getWordCount(),
+                matcher.getStateCount(),
+                plugin.getMuteManager().size(),
+                messageManager.getPrefixCache().size(),
+                messageManager.getComponentCache().size()));
+    }
+
+    private void sendLatency(CommandSource source, String name, Histogram histogram) {
+        sendMessage(source, String.format("&7 %s: &f%.3f &7/ &f%.3f &7/ &f%.3f &7/ &f%.3f&7, %d",
+                name,
+                histogram.getPercentile(0.5) / 1e6,
+                histogram.getPercentile(0.99) / 1e6,
+                histogram.getPercentile(0.999) / 1e6,
+                histogram.getMax() / 1e6,
+                histogram.getCount()));
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds < 60) {
+            return seconds + "s";
+        } else if (seconds < 3600) {
+            return seconds / 60 + "m " + seconds % 60 + "s";
+        }
+        return seconds / 3600 + "h " + seconds % 3600 / 60 + "m";
+    }
+}
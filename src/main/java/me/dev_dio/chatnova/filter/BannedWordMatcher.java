@@ -0,0 +1,296 @@
+package me.dev_dio.chatnova.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over the banned word list. It is built once from the word list and
+ * then scans a message in a single left-to-right pass, no matter how many words are banned.
+ * Matching is case-insensitive; characters are lowercased one at a time while scanning, so no
+ * lowered copy of the message is allocated.
+ */
+public final class BannedWordMatcher {
+    private static final int ROOT = 0;
+    private static final long EMPTY = -1L;
+
+    // Goto function stored as an open-addressing table keyed by (state << 16 | char)
+    private final long[] transitionKeys;
+    private final int[] transitionTargets;
+    private final int transitionMask;
+
+    // Per-state data
+    private final int[] failure;
+    private final int[] matchLength;
+    private final int[] outputLink;
+    private final int wordCount;
+
+    /**
+     * Receives matches found while scanning
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * @param start Index of the first matched character
+         * @param end Index after the last matched character
+         * @return false to stop scanning
+         */
+        boolean onMatch(int start, int end);
+    }
+
+    /**
+     * A banned word occurrence inside a message
+     */
+    public static class Match {
+        private final int start;
+        private final int end;
+
+        public Match(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public int getStart() { return start; }
+        public int getEnd() { return end; }
+    }
+
+    private BannedWordMatcher(Builder builder) {
+        int states = builder.stateCount;
+        this.failure = new int[states];
+        this.matchLength = Arrays.copyOf(builder.matchLength, states);
+        this.outputLink = new int[states];
+        this.wordCount = builder.wordCount;
+
+        int capacity = Integer.highestOneBit(Math.max(2, states * 2 - 1)) << 1;
+        this.transitionKeys = new long[capacity];
+        this.transitionTargets = new int[capacity];
+        this.transitionMask = capacity - 1;
+        Arrays.fill(transitionKeys, EMPTY);
+        for (int state = 1; state < states; state++) {
+            putTransition(builder.parent[state], builder.label[state], state);
+        }
+
+        computeFailureLinks(builder);
+    }
+
+    /**
+     * Build a matcher for the given words. Blank entries are ignored.
+     */
+    public static BannedWordMatcher build(Collection<String> words) {
+        Builder builder = new Builder();
+        for (String word : words) {
+            if (word != null && !word.isEmpty()) {
+                builder.add(word);
+            }
+        }
+        return new BannedWordMatcher(builder);
+    }
+
+    /**
+     * Check if the text contains at least one banned word
+     */
+    public boolean matches(CharSequence text) {
+        if (wordCount == 0) {
+            return false;
+        }
+
+        int state = ROOT;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = step(state, text.charAt(i));
+            if (hasMatch(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Report every banned word occurrence, including overlapping ones, in order of their end index
+     */
+    public void scan(CharSequence text, MatchHandler handler) {
+        if (wordCount == 0) {
+            return;
+        }
+
+        int state = ROOT;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = step(state, text.charAt(i));
+            if (hasMatch(state) && !reportMatches(state, i + 1, handler)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Collect every banned word occurrence in the text
+     */
+    public List<Match> findMatches(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        scan(text, (start, end) -> matches.add(new Match(start, end)));
+        return matches;
+    }
+
+    /**
+     * Get the number of distinct words in the automaton
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Get the number of automaton states
+     */
+    public int getStateCount() {
+        return failure.length;
+    }
+
+    /**
+     * Advance the automaton by one (not yet lowercased) character
+     */
+    int step(int state, char c) {
+        char lower = Character.toLowerCase(c);
+        while (true) {
+            int next = getTransition(state, lower);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = failure[state];
+        }
+    }
+
+    /**
+     * Check if any banned word ends in the given state
+     */
+    boolean hasMatch(int state) {
+        return matchLength[state] > 0 || outputLink[state] >= 0;
+    }
+
+    /**
+     * Report all words ending in the given state
+     * @return false if the handler asked to stop
+     */
+    boolean reportMatches(int state, int end, MatchHandler handler) {
+        if (matchLength[state] > 0 && !handler.onMatch(end - matchLength[state], end)) {
+            return false;
+        }
+        for (int output = outputLink[state]; output >= 0; output = outputLink[output]) {
+            if (!handler.onMatch(end - matchLength[output], end)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void computeFailureLinks(Builder builder) {
+        int states = builder.stateCount;
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+
+        failure[ROOT] = ROOT;
+        outputLink[ROOT] = -1;
+        for (int child = builder.firstChild[ROOT]; child != 0; child = builder.nextSibling[child]) {
+            failure[child] = ROOT;
+            outputLink[child] = -1;
+            queue[tail++] = child;
+        }
+
+        // Breadth-first, so every failure target is final before it is used
+        while (head < tail) {
+            int state = queue[head++];
+            for (int child = builder.firstChild[state]; child != 0; child = builder.nextSibling[child]) {
+                char c = builder.label[child];
+                int fallback = failure[state];
+                int target;
+                while ((target = getTransition(fallback, c)) < 0 && fallback != ROOT) {
+                    fallback = failure[fallback];
+                }
+
+                int childFailure = target >= 0 ? target : ROOT;
+                failure[child] = childFailure;
+                outputLink[child] = matchLength[childFailure] > 0 ? childFailure : outputLink[childFailure];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    private int getTransition(int state, char c) {
+        long key = ((long) state << 16) | c;
+        for (int slot = hash(key); ; slot = (slot + 1) & transitionMask) {
+            long existing = transitionKeys[slot];
+            if (existing == key) {
+                return transitionTargets[slot];
+            }
+            if (existing == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private void putTransition(int state, char c, int target) {
+        long key = ((long) state << 16) | c;
+        int slot = hash(key);
+        while (transitionKeys[slot] != EMPTY) {
+            slot = (slot + 1) & transitionMask;
+        }
+        transitionKeys[slot] = key;
+        transitionTargets[slot] = target;
+    }
+
+    private int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & transitionMask;
+    }
+
+    /**
+     * Growable trie used only while building the automaton
+     */
+    private static final class Builder {
+        private int[] parent = new int[64];
+        private char[] label = new char[64];
+        private int[] firstChild = new int[64];
+        private int[] nextSibling = new int[64];
+        private int[] matchLength = new int[64];
+        private int stateCount = 1;
+        private int wordCount;
+
+        private void add(String word) {
+            int state = ROOT;
+            for (int i = 0; i < word.length(); i++) {
+                state = child(state, Character.toLowerCase(word.charAt(i)));
+            }
+            if (matchLength[state] == 0) {
+                matchLength[state] = word.length();
+                wordCount++;
+            }
+        }
+
+        private int child(int state, char c) {
+            for (int child = firstChild[state]; child != 0; child = nextSibling[child]) {
+                if (label[child] == c) {
+                    return child;
+                }
+            }
+
+            if (stateCount == parent.length) {
+                int capacity = parent.length * 2;
+                parent = Arrays.copyOf(parent, capacity);
+                label = Arrays.copyOf(label, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                matchLength = Arrays.copyOf(matchLength, capacity);
+            }
+
+            int created = stateCount++;
+            parent[created] = state;
+            label[created] = c;
+            nextSibling[created] = firstChild[state];
+            firstChild[state] = created;
+            return created;
+        }
+    }
+}
@@ -1,69 +1,118 @@
 package me.dev_dio.chatnova.filter;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 /**
  * Handles chat message filtering including banned words, message length, and URL detection
  */
 public class ChatFilter {
     private final Set<String> bannedWords;
-    private final int maxMessageLength;
-    private final Pattern urlPattern;
-    private final Pattern ipPattern;
+    private volatile BannedWordMatcher matcher;
+    private volatile int maxMessageLength;
     
     public ChatFilter(int maxMessageLength) {
         this.bannedWords = new HashSet<>();
+        this.matcher = BannedWordMatcher.build(bannedWords);
         this.maxMessageLength = maxMessageLength;
-        
-        // Improved URL detection pattern
-        this.urlPattern = Pattern.compile(
-            "(?i)\\b(?:https?://|www\\.|[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,})\\S*",
-            Pattern.CASE_INSENSITIVE
-        );
-        
-        // IP address detection pattern
-        this.ipPattern = Pattern.compile(
-            "\\b(?:[0-9]{1,3}\\.){3}[0-9]{1,3}(?::[0-9]{1,5})?\\b"
-        );
     }
     
     /**
      * Add a banned word to the filter
      * @param word The word to ban (case-insensitive)
      */
-    public void addBannedWord(String word) {
+    public synchronized void addBannedWord(String word) {
         if (word != null && !word.trim().isEmpty()) {
             bannedWords.add(word.toLowerCase().trim());
+            matcher = null;
+        }
+    }
+    
+    /**
+     * Add many banned words and rebuild the matcher once
+     * @param words The words to ban (case-insensitive)
+     */
+    public synchronized void addBannedWords(Collection<String> words) {
+        for (String word : words) {
+            if (word != null && !word.trim().isEmpty()) {
+                bannedWords.add(word.toLowerCase().trim());
+            }
+        }
+        matcher = BannedWordMatcher.build(bannedWords);
+    }
+    
+    /**
+     * Make the banned word list match the given words. Only the difference to the current list
+     * is applied, and the matcher is rebuilt once on the calling thread and then swapped in, so
+     * messages keep being checked against the old list until the new one is ready.
+     * @param words The complete new word list (case-insensitive)
+     * @return true if any word was added or removed
+     */
+    public synchronized boolean updateBannedWords(Collection<String> words) {
+        Set<String> updated = new HashSet<>();
+        for (String word : words) {
+            if (word != null && !word.trim().isEmpty()) {
+                updated.add(word.toLowerCase().trim());
+            }
+        }
+        
+        boolean removed = bannedWords.retainAll(updated);
+        boolean added = bannedWords.addAll(updated);
+        if (!removed && !added && matcher != null) {
+            return false;
         }
+        
+        matcher = BannedWordMatcher.build(bannedWords);
+        return removed || added;
     }
     
     /**
      * Remove a banned word from the filter
      * @param word The word to remove (case-insensitive)
      */
-    public void removeBannedWord(String word) {
-        if (word != null) {
-            bannedWords.remove(word.toLowerCase().trim());
+    public synchronized void removeBannedWord(String word) {
+        if (word != null && bannedWords.remove(word.toLowerCase().trim())) {
+            matcher = null;
         }
     }
     
     /**
      * Clear all banned words
      */
-    public void clearBannedWords() {
+    public synchronized void clearBannedWords() {
         bannedWords.clear();
+        matcher = null;
     }
     
     /**
      * Get all banned words
      * @return Set of banned words
      */
-    public Set<String> getBannedWords() {
+    public synchronized Set<String> getBannedWords() {
         return new HashSet<>(bannedWords);
     }
     
+    /**
+     * Get the banned word matcher, rebuilding it if the word list changed since it was last built
+     * @return The current matcher
+     */
+    public BannedWordMatcher getMatcher() {
+        BannedWordMatcher current = matcher;
+        if (current != null) {
+            return current;
+        }
+        
+        synchronized (this) {
+            if (matcher == null) {
+                matcher = BannedWordMatcher.build(bannedWords);
+            }
+            return matcher;
+        }
+    }
+    
     /**
      * Check if message contains any banned words
      * @param message The message to check
@@ -74,8 +123,20 @@ public class ChatFilter {
             return false;
         }
         
-        String lowerMessage = message.toLowerCase();
-        return bannedWords.stream().anyMatch(lowerMessage::contains);
+        return getMatcher().matches(message);
+    }
+    
+    /**
+     * Find the position of every banned word in a message
+     * @param message The message to scan
+     * @return Matches in order of their end index (overlapping matches included)
+     */
+    public List<BannedWordMatcher.Match> findBannedWords(String message) {
+        if (message == null || message.isEmpty()) {
+            return List.of();
+        }
+        
+        return getMatcher().findMatches(message);
     }
     
     /**
@@ -93,7 +154,15 @@ public class ChatFilter {
      * @return true if message contains URLs
      */
     public boolean containsUrl(String message) {
-        return message != null && urlPattern.matcher(message).find();
+        if (message == null) {
+            return false;
+        }
+        
+        LinkDetector detector = new LinkDetector();
+        for (int i = 0, length = message.length(); i < length && !detector.foundUrl(); i++) {
+            detector.accept(message.charAt(i));
+        }
+        return detector.foundUrl();
     }
     
     /**
@@ -102,7 +171,16 @@ public class ChatFilter {
      * @return true if message contains IP addresses
      */
     public boolean containsIpAddress(String message) {
-        return message != null && ipPattern.matcher(message).find();
+        if (message == null) {
+            return false;
+        }
+        
+        LinkDetector detector = new LinkDetector();
+        for (int i = 0, length = message.length(); i < length && !detector.foundIp(); i++) {
+            detector.accept(message.charAt(i));
+        }
+        detector.finish();
+        return detector.foundIp();
     }
     
     /**
@@ -113,42 +191,98 @@ public class ChatFilter {
         return maxMessageLength;
     }
     
+    /**
+     * Change the maximum allowed message length, e.g. after a config reload
+     * @param maxMessageLength Maximum message length
+     */
+    public void setMaxMessageLength(int maxMessageLength) {
+        this.maxMessageLength = maxMessageLength;
+    }
+    
     /**
      * Censor banned words in a message by replacing them with asterisks
      * @param message The message to censor
-     * @return Censored message
+     * @return Censored message, or the same instance if nothing matched
      */
     public String censorMessage(String message) {
         if (message == null || message.isEmpty()) {
             return message;
         }
         
-        String censoredMessage = message;
-        for (String bannedWord : bannedWords) {
-            String stars = "*".repeat(bannedWord.length());
-            censoredMessage = censoredMessage.replaceAll(
-                "(?i)" + Pattern.quote(bannedWord), 
-                stars
-            );
-        }
-        return censoredMessage;
+        Censor censor = new Censor(message);
+        getMatcher().scan(message, censor);
+        return censor.result();
     }
     
     /**
-     * Perform a complete filter check on a message
+     * Perform a complete filter check on a message in a single pass over its characters.
+     * Banned words, URLs and IP addresses are all detected in the same walk, and the censored
+     * copy is only allocated when a banned word actually matched.
      * @param message The message to filter
      * @return FilterResult containing all filter results
      */
     public FilterResult filterMessage(String message) {
+        if (message == null || message.isEmpty()) {
+            return new FilterResult(false, false, false, false, message);
+        }
+        
+        BannedWordMatcher wordMatcher = getMatcher();
+        LinkDetector linkDetector = new LinkDetector();
+        Censor censor = new Censor(message);
+        int state = 0;
+        
+        for (int i = 0, length = message.length(); i < length; i++) {
+            char c = message.charAt(i);
+            
+            state = wordMatcher.step(state, c);
+            if (wordMatcher.hasMatch(state)) {
+                wordMatcher.reportMatches(state, i + 1, censor);
+            }
+            
+            if (!linkDetector.isDone()) {
+                linkDetector.accept(c);
+            }
+        }
+        linkDetector.finish();
+        
         return new FilterResult(
-            containsBannedWords(message),
-            exceedsMaxLength(message),
-            containsUrl(message),
-            containsIpAddress(message),
-            censorMessage(message)
+            censor.hasMatched(),
+            message.length() > maxMessageLength,
+            linkDetector.foundUrl(),
+            linkDetector.foundIp(),
+            censor.result()
         );
     }
     
+    /**
+     * Writes asterisks over every match into a single buffer, copied from the message on the first match
+     */
+    private static final class Censor implements BannedWordMatcher.MatchHandler {
+        private final String message;
+        private char[] buffer;
+        
+        private Censor(String message) {
+            this.message = message;
+        }
+        
+        @Override
+        public boolean onMatch(int start, int end) {
+            if (buffer == null) {
+                buffer = message.toCharArray();
+            }
+            Arrays.fill(buffer, start, end, '*');
+            return true;
+        }
+        
+        private boolean hasMatched() {
+            return buffer != null;
+        }
+        
+        private String result() {
+            return buffer != null ? new String(buffer) : message;
+        }
+    }
+    
     /**
      * Result of filtering a message
      */
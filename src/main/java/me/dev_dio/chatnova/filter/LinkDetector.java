@@ -0,0 +1,195 @@
+package me.dev_dio.chatnova.filter;
+
+/**
+ * Streaming URL and IPv4 detector fed one character at a time. It replaces the old
+ * backtracking patterns with hand-written state machines that accept the same input:
+ * <ul>
+ *   <li>URL: {@code \b(?:https?://|www\.|[a-zA-Z0-9.-]+\.[a-zA-Z]{2,})}</li>
+ *   <li>IP: {@code \b(?:[0-9]{1,3}\.){3}[0-9]{1,3}\b} (an optional {@code :port} never changes the outcome)</li>
+ * </ul>
+ * Instances are single use and not thread-safe.
+ */
+final class LinkDetector {
+    // Scheme / www prefix states
+    private static final int PREFIX_NONE = 0;
+    private static final int PREFIX_H = 1;
+    private static final int PREFIX_HT = 2;
+    private static final int PREFIX_HTT = 3;
+    private static final int PREFIX_HTTP = 4;
+    private static final int PREFIX_HTTPS = 5;
+    private static final int PREFIX_COLON = 6;
+    private static final int PREFIX_SLASH = 7;
+    private static final int PREFIX_W = 8;
+    private static final int PREFIX_WW = 9;
+    private static final int PREFIX_WWW = 10;
+
+    private char previous;
+    private boolean started;
+
+    private boolean url;
+    private boolean ip;
+
+    private int prefixState = PREFIX_NONE;
+
+    // Domain state: a run of [a-zA-Z0-9.-] containing a word boundary, then '.', then 2+ letters
+    private boolean domainStartSeen;
+    private boolean inTopLevelDomain;
+    private int topLevelDomainLetters;
+
+    // IPv4 state
+    private boolean ipActive;
+    private int ipOctets;
+    private int ipDigits;
+
+    /**
+     * Feed the next character of the message
+     */
+    void accept(char c) {
+        boolean boundary = started ? isWordChar(previous) != isWordChar(c) : isWordChar(c);
+
+        if (!url) {
+            acceptPrefix(c, boundary);
+            acceptDomain(c, boundary);
+        }
+        if (!ip) {
+            acceptIp(c);
+        }
+
+        previous = c;
+        started = true;
+    }
+
+    /**
+     * Signal the end of the message
+     */
+    void finish() {
+        if (ipActive && ipOctets == 3 && ipDigits > 0) {
+            ip = true;
+        }
+        ipActive = false;
+    }
+
+    boolean foundUrl() {
+        return url;
+    }
+
+    boolean foundIp() {
+        return ip;
+    }
+
+    boolean isDone() {
+        return url && ip;
+    }
+
+    private void acceptPrefix(char c, boolean boundary) {
+        char lower = toLowerAscii(c);
+        switch (prefixState) {
+            case PREFIX_H: prefixState = lower == 't' ? PREFIX_HT : PREFIX_NONE; break;
+            case PREFIX_HT: prefixState = lower == 't' ? PREFIX_HTT : PREFIX_NONE; break;
+            case PREFIX_HTT: prefixState = lower == 'p' ? PREFIX_HTTP : PREFIX_NONE; break;
+            case PREFIX_HTTP: prefixState = lower == 's' ? PREFIX_HTTPS : c == ':' ? PREFIX_COLON : PREFIX_NONE; break;
+            case PREFIX_HTTPS: prefixState = c == ':' ? PREFIX_COLON : PREFIX_NONE; break;
+            case PREFIX_COLON: prefixState = c == '/' ? PREFIX_SLASH : PREFIX_NONE; break;
+            case PREFIX_SLASH:
+                if (c == '/') {
+                    url = true;
+                }
+                prefixState = PREFIX_NONE;
+                break;
+            case PREFIX_W: prefixState = lower == 'w' ? PREFIX_WW : PREFIX_NONE; break;
+            case PREFIX_WW: prefixState = lower == 'w' ? PREFIX_WWW : PREFIX_NONE; break;
+            case PREFIX_WWW:
+                if (c == '.') {
+                    url = true;
+                }
+                prefixState = PREFIX_NONE;
+                break;
+            default:
+                prefixState = PREFIX_NONE;
+                break;
+        }
+
+        // A failed prefix may still be the start of a new one
+        if (prefixState == PREFIX_NONE && boundary) {
+            if (lower == 'h') {
+                prefixState = PREFIX_H;
+            } else if (lower == 'w') {
+                prefixState = PREFIX_W;
+            }
+        }
+    }
+
+    private void acceptDomain(char c, boolean boundary) {
+        if (!isDomainChar(c)) {
+            domainStartSeen = false;
+            inTopLevelDomain = false;
+            return;
+        }
+
+        if (c == '.') {
+            // Any earlier boundary in this run can start the "[a-zA-Z0-9.-]+" part before this dot
+            inTopLevelDomain = domainStartSeen;
+            topLevelDomainLetters = 0;
+        } else if (inTopLevelDomain) {
+            if (isAsciiLetter(c)) {
+                if (++topLevelDomainLetters >= 2) {
+                    url = true;
+                }
+            } else {
+                inTopLevelDomain = false;
+            }
+        }
+
+        if (boundary) {
+            domainStartSeen = true;
+        }
+    }
+
+    private void acceptIp(char c) {
+        if (c >= '0' && c <= '9') {
+            if (!ipActive) {
+                // A new address can only start at a word boundary
+                if (!started || !isWordChar(previous)) {
+                    ipActive = true;
+                    ipOctets = 0;
+                    ipDigits = 1;
+                }
+            } else if (++ipDigits > 3) {
+                ipActive = false;
+            }
+        } else if (c == '.') {
+            if (ipActive && ipDigits > 0) {
+                if (ipOctets == 3) {
+                    ip = true;
+                    ipActive = false;
+                } else {
+                    ipOctets++;
+                    ipDigits = 0;
+                }
+            } else {
+                ipActive = false;
+            }
+        } else {
+            if (ipActive && ipOctets == 3 && ipDigits > 0 && !isWordChar(c)) {
+                ip = true;
+            }
+            ipActive = false;
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9') || c == '.' || c == '-';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,144 @@
+package me.dev_dio.chatnova.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import me.dev_dio.chatnova.pipeline.ChatContext;
+import me.dev_dio.chatnova.pipeline.ChatStats;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+
+/**
+ * One /gc message, from submission until it was broadcast or rejected. Disabled by default;
+ * while no recording enables it, messages don't even create the event.
+ */
+@Name("chatnova.ChatMessage")
+@Label("Global Chat Message")
+@Category("ChatNova")
+@Description("A /gc message from submission until it was broadcast or rejected")
+@Enabled(false)
+@StackTrace(false)
+public class ChatMessageEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(ChatMessageEvent.class);
+
+    @Label("Sender")
+    private String sender;
+
+    @Label("Server")
+    private String server;
+
+    @Label("Verdict")
+    @Description("accepted, or why the message was rejected")
+    private String verdict;
+
+    @Label("Recipients")
+    private int recipients;
+
+    @Label("Message Length")
+    @Description("Characters of the player's message after filtering")
+    private int messageLength;
+
+    @Label("Payload Size")
+    @Description("UTF-8 size of the rendered chat component as JSON, sent to every recipient")
+    @DataAmount
+    private long payloadSize;
+
+    @Label("Cooldown Check")
+    @Timespan
+    private long cooldown;
+
+    @Label("Mute Lookup")
+    @Timespan
+    private long muteLookup;
+
+    @Label("Filter")
+    @Timespan
+    private long filter;
+
+    @Label("Format")
+    @Timespan
+    private long format;
+
+    @Label("Fan-out")
+    @Timespan
+    private long fanOut;
+
+    /**
+     * Start timing a message that was just submitted
+     * @return The started event, or null while no recording has it enabled
+     */
+    public static ChatMessageEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        ChatMessageEvent event = new ChatMessageEvent();
+        event.begin();
+        return event;
+    }
+
+    public void setStageDuration(ChatStats.Stage stage, long nanos) {
+        switch (stage) {
+            case COOLDOWN: cooldown = nanos; break;
+            case MUTE_LOOKUP: muteLookup = nanos; break;
+            case FILTER: filter = nanos; break;
+            case FORMAT: format = nanos; break;
+            case FAN_OUT: fanOut = nanos; break;
+        }
+    }
+
+    /**
+     * Fill in the outcome and commit, if the event passes the recording's threshold
+     */
+    public void finish(ChatContext context, boolean accepted) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+
+        sender = context.getSender().getUsername();
+        server = context.getServerName();
+        ChatStats.RejectReason reason = context.getRejectReason();
+        verdict = accepted ? "accepted" : reason != null ? reason.getDisplayName() : ChatStats.RejectReason.ERROR.getDisplayName();
+        recipients = context.getRecipientCount();
+        messageLength = context.getMessage().length();
+
+        // Only serialized while recording, it is the costliest field
+        Component rendered = context.getRendered();
+        payloadSize = rendered != null ? utf8Length(GsonComponentSerializer.gson().serialize(rendered)) : 0;
+        commit();
+    }
+
+    /**
+     * Count the bytes a string takes in UTF-8 without encoding it
+     */
+    private static long utf8Length(String text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // A surrogate pair is one 4-byte code point
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired, the encoder replaces it with '?'
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,48 @@
+package me.dev_dio.chatnova.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A reload of config or data files, from /gcreload or an edited file
+ */
+@Name("chatnova.ConfigReload")
+@Label("Config Reload")
+@Category("ChatNova")
+@Description("Config or data files reloaded by /gcreload or after they were edited")
+@Enabled(false)
+@StackTrace(false)
+public class ConfigReloadEvent extends Event {
+    public static final String TRIGGER_COMMAND = "command";
+    public static final String TRIGGER_FILE_CHANGE = "file change";
+
+    @Label("Trigger")
+    private String trigger;
+
+    @Label("Files")
+    private String files;
+
+    public static ConfigReloadEvent start() {
+        ConfigReloadEvent event = new ConfigReloadEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param trigger One of the TRIGGER constants
+     * @param files The reloaded file names
+     */
+    public void finish(String trigger, String files) {
+        end();
+        if (shouldCommit()) {
+            this.trigger = trigger;
+            this.files = files;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package me.dev_dio.chatnova.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Data written to disk: a YAML file rewrite, a journal fsync or a database statement
+ */
+@Name("chatnova.StorageFlush")
+@Label("Storage Flush")
+@Category("ChatNova")
+@Description("Blacklist, player setting or banned word data written to disk")
+@Enabled(false)
+@StackTrace(false)
+public class StorageFlushEvent extends Event {
+    public static final String BACKEND_YAML = "yaml";
+    public static final String BACKEND_JOURNAL = "journal";
+    public static final String BACKEND_H2 = "h2";
+
+    @Label("Backend")
+    private String backend;
+
+    @Label("Target")
+    @Description("File name, or the SQL statement for the database")
+    private String target;
+
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytes;
+
+    public static StorageFlushEvent start() {
+        StorageFlushEvent event = new StorageFlushEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param backend One of the BACKEND constants
+     * @param bytes Bytes written, 0 if unknown
+     */
+    public void finish(String backend, String target, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.backend = backend;
+            this.target = target;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package me.dev_dio.chatnova.listener;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.proxy.Player;
+
+import me.dev_dio.chatnova.ChatNova;
+
+/**
+ * Keeps per-player caches in sync with players joining and leaving the proxy
+ */
+public class ConnectionListener {
+    private final ChatNova plugin;
+
+    public ConnectionListener(ChatNova plugin) {
+        this.plugin = plugin;
+    }
+
+    @Subscribe
+    public void onPostLogin(PostLoginEvent event) {
+        Player player = event.getPlayer();
+
+        plugin.getMessageManager().getRecipientIndex().addPlayer(player);
+
+        // Warm the mute and prefix caches before the player's first /gc.
+        // LuckPerms has loaded the user by now, so the prefix never triggers a load.
+        plugin.getMuteManager().prefetch(player.getUniqueId());
+        plugin.getMessageManager().getPrefixCache().load(player.getUniqueId());
+        plugin.loadPlayerData(player.getUniqueId());
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        Player player = event.getPlayer();
+
+        plugin.getMuteManager().evict(player.getUniqueId());
+        plugin.getCooldownManager().evict(player.getUniqueId());
+        plugin.getMessageManager().getRecipientIndex().removePlayer(player.getUniqueId());
+        plugin.getMessageManager().getPrefixCache().invalidate(player.getUniqueId());
+        plugin.getMessageManager().getComponentCache().invalidate(player.getUniqueId());
+        plugin.unloadPlayerData(player.getUniqueId());
+    }
+}
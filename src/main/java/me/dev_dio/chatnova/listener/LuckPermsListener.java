@@ -0,0 +1,52 @@
+package me.dev_dio.chatnova.listener;
+
+import me.dev_dio.chatnova.ChatNova;
+import me.dev_dio.chatnova.manager.MessageManager;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.event.node.NodeMutateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import net.luckperms.api.model.user.User;
+
+/**
+ * Keeps per-player data derived from LuckPerms (cooldown tier, prefix) in step with LuckPerms changes
+ */
+public class LuckPermsListener {
+    private final ChatNova plugin;
+
+    public LuckPermsListener(ChatNova plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Subscribe to the LuckPerms event bus
+     */
+    public void register(LuckPerms luckPerms) {
+        luckPerms.getEventBus().subscribe(plugin, UserDataRecalculateEvent.class, this::onUserDataRecalculate);
+        luckPerms.getEventBus().subscribe(plugin, NodeMutateEvent.class, this::onNodeMutate);
+    }
+
+    private void onUserDataRecalculate(UserDataRecalculateEvent event) {
+        User user = event.getUser();
+        plugin.getServer().getPlayer(user.getUniqueId()).ifPresent(player -> {
+            plugin.getCooldownManager().refreshTier(player);
+
+            // The event carries the freshly calculated data, so refresh instead of just dropping
+            MessageManager messageManager = plugin.getMessageManager();
+            messageManager.getPrefixCache().refresh(user);
+            messageManager.getComponentCache().invalidate(user.getUniqueId());
+        });
+    }
+
+    private void onNodeMutate(NodeMutateEvent event) {
+        MessageManager messageManager = plugin.getMessageManager();
+        if (event.isUser()) {
+            User user = (User) event.getTarget();
+            messageManager.getPrefixCache().invalidate(user.getUniqueId());
+            messageManager.getComponentCache().invalidate(user.getUniqueId());
+        } else {
+            // A group change can affect the prefix of any of its members
+            messageManager.getPrefixCache().clear();
+            messageManager.getComponentCache().clear();
+        }
+    }
+}
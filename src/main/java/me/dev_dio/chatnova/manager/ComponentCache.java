@@ -0,0 +1,137 @@
+package me.dev_dio.chatnova.manager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.dev_dio.chatnova.util.CacheStats;
+import me.dev_dio.chatnova.util.FormatTemplate;
+import net.kyori.adventure.text.Component;
+
+/**
+ * Caches the static part of each player's global chat line (server format up to {message},
+ * with server name, rank prefix and username filled in) as an already parsed {@link Component}.
+ * An entry is reused as long as the template, server, prefix, username and format mode still
+ * match, so reloads and prefix changes invalidate it automatically.
+ */
+public class ComponentCache {
+    private final Map<UUID, Header> headers = new ConcurrentHashMap<>();
+    private final CacheStats stats = new CacheStats();
+
+    /**
+     * Cached leading part of a player's chat line
+     */
+    public static final class Header {
+        private final FormatTemplate template;
+        private final String serverName;
+        private final String rankPrefix;
+        private final String username;
+        private final boolean miniMessage;
+        private final Component component;
+        private final String carry;
+
+        Header(FormatTemplate template, String serverName, String rankPrefix, String username,
+               boolean miniMessage, Component component, String carry) {
+            this.template = template;
+            this.serverName = serverName;
+            this.rankPrefix = rankPrefix;
+            this.username = username;
+            this.miniMessage = miniMessage;
+            this.component = component;
+            this.carry = carry;
+        }
+
+        /**
+         * The parsed header, or null if this format can't be split and must be rendered whole
+         */
+        public Component getComponent() { return component; }
+
+        /**
+         * Formatting codes still active at the end of the header, to be put in front of the message text
+         */
+        public String getCarry() { return carry; }
+
+        boolean matches(FormatTemplate template, String serverName, String rankPrefix, String username, boolean miniMessage) {
+            return this.template == template
+                    && this.miniMessage == miniMessage
+                    && this.serverName.equals(serverName)
+                    && Objects.equals(this.rankPrefix, rankPrefix)
+                    && this.username.equals(username);
+        }
+    }
+
+    /**
+     * Get the cached header if it was built for the same inputs
+     */
+    public Header get(UUID uuid, FormatTemplate template, String serverName, String rankPrefix, String username, boolean miniMessage) {
+        Header header = headers.get(uuid);
+        if (header != null && header.matches(template, serverName, rankPrefix, username, miniMessage)) {
+            stats.recordHit();
+            return header;
+        }
+        stats.recordMiss();
+        return null;
+    }
+
+    public void put(UUID uuid, Header header) {
+        headers.put(uuid, header);
+    }
+
+    public void invalidate(UUID uuid) {
+        headers.remove(uuid);
+    }
+
+    public void clear() {
+        headers.clear();
+    }
+
+    public int size() {
+        return headers.size();
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Work out which legacy formatting codes are still active at the end of a header string.
+     * Legacy text resets decorations on every color code, while converted MiniMessage tags stay
+     * open until a reset, so the two modes carry different codes.
+     * @return The codes to prepend to the message, or null if the header can't be split safely
+     */
+    static String computeCarry(String header, boolean miniMessage) {
+        // Unclosed MiniMessage tags or a dangling '&' would change how the message is parsed
+        if ((miniMessage && header.indexOf('<') >= 0) || header.endsWith("&")) {
+            return null;
+        }
+
+        StringBuilder carry = new StringBuilder();
+        for (int i = 0; i + 1 < header.length(); i++) {
+            if (header.charAt(i) != '&') {
+                continue;
+            }
+
+            // Only lowercase codes are converted when MiniMessage is used
+            char code = header.charAt(i + 1);
+            if (!miniMessage) {
+                code = Character.toLowerCase(code);
+            }
+
+            if (code == 'r') {
+                carry.setLength(0);
+            } else if ((code >= '0' && code <= '9') || (code >= 'a' && code <= 'f')) {
+                if (!miniMessage) {
+                    carry.setLength(0);
+                }
+                carry.append('&').append(code);
+            } else if (code >= 'k' && code <= 'o') {
+                carry.append('&').append(code);
+            } else {
+                continue;
+            }
+            i++;
+        }
+        return carry.toString();
+    }
+}
@@ -6,7 +6,6 @@ import java.io.Reader;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -17,12 +16,12 @@ import me.dev_dio.chatnova.Constants;
 public class ConfigManager {
     private final Path dataDirectory;
     private final Logger logger;
-    private Map<String, Object> config;
+    private volatile ConfigSnapshot snapshot;
     
     public ConfigManager(Path dataDirectory, Logger logger) {
         this.dataDirectory = dataDirectory;
         this.logger = logger;
-        this.config = new HashMap<>();
+        this.snapshot = ConfigSnapshot.empty();
     }
     
     public void loadConfig() {
@@ -43,59 +42,40 @@ public class ConfigManager {
             
             Yaml yaml = new Yaml();
             try (Reader reader = Files.newBufferedReader(configPath)) {
-                config = yaml.load(reader);
-                if (config == null) {
-                    config = new HashMap<>();
-                }
+                Map<String, Object> config = yaml.load(reader);
+                
+                // Compile fully before publishing so readers never see a half-loaded config
+                snapshot = ConfigSnapshot.compile(config);
             }
         } catch (IOException e) {
             logger.error("Failed to load config", e);
-            config = new HashMap<>();
+            snapshot = ConfigSnapshot.empty();
         }
     }
     
+    /**
+     * Get the current compiled config. Hold on to the returned instance when reading
+     * several values that must come from the same load.
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
     public void reloadConfig() {
         loadConfig();
         logger.info("Configuration reloaded successfully!");
     }
     
     public String getString(String path, String defaultValue) {
-        if (config == null) return defaultValue;
-        
-        String[] keys = path.split("\\.");
-        Object current = config;
-        
-        for (String key : keys) {
-            if (current instanceof Map) {
-                current = ((Map<?, ?>) current).get(key);
-            } else {
-                return defaultValue;
-            }
-        }
-        
-        return current != null ? current.toString() : defaultValue;
+        return snapshot.getString(path, defaultValue);
     }
     
     public int getInt(String path, int defaultValue) {
-        if (config == null) return defaultValue;
-        
-        String[] keys = path.split("\\.");
-        Object current = config;
-        
-        for (String key : keys) {
-            if (current instanceof Map) {
-                current = ((Map<?, ?>) current).get(key);
-            } else {
-                return defaultValue;
-            }
-        }
-        
-        return current instanceof Number ? ((Number) current).intValue() : defaultValue;
+        return snapshot.getInt(path, defaultValue);
     }
     
     public boolean getBoolean(String path, boolean defaultValue) {
-        String value = getString(path, String.valueOf(defaultValue));
-        return Boolean.parseBoolean(value);
+        return snapshot.getBoolean(path, defaultValue);
     }
     
     private void saveDefaultConfig(Path configPath) throws IOException {
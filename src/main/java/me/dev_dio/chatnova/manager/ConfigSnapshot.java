@@ -0,0 +1,238 @@
+package me.dev_dio.chatnova.manager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.dev_dio.chatnova.Constants;
+import me.dev_dio.chatnova.util.FormatTemplate;
+
+/**
+ * Immutable, typed view of config.yml compiled once at load time. Hot-path settings are plain
+ * fields, chat formats are precompiled {@link FormatTemplate}s and every other value is stored
+ * under its full dotted path, so reads never split paths or walk nested maps.
+ */
+public final class ConfigSnapshot {
+    // Message texts are config values, this only guards against callers passing arbitrary text
+    private static final int MAX_MESSAGE_TEMPLATES = 256;
+
+    private final Map<String, Object> values;
+    private final Map<String, FormatTemplate> serverFormats;
+    private final Map<String, FormatTemplate> messageTemplates = new ConcurrentHashMap<>();
+
+    // Chat
+    private final int maxMessageLength;
+    private final boolean censorBannedWords;
+    private final boolean useMiniMessage;
+    private final FormatTemplate playerFormat;
+    private final FormatTemplate consoleFormat;
+
+    // Cooldowns (seconds)
+    private final int cooldownDefault;
+    private final int cooldownPremium;
+    private final int cooldownVip;
+
+    // Pipeline
+    private final boolean asyncPipeline;
+    private final int pipelineThreads;
+    private final int pipelineQueueSize;
+
+    // LiteBans
+    private final int muteCacheTtl;
+    private final int muteLookupTimeout;
+    private final boolean muteFailClosed;
+    private final int muteBreakerThreshold;
+    private final int muteBreakerCooldown;
+
+    // Storage
+    private final boolean h2Storage;
+    private final int storageSaveDelay;
+    private final boolean journalStorage;
+    private final int journalSyncInterval;
+    private final int journalCompactSize;
+
+    // Reload
+    private final boolean autoReload;
+    private final int autoReloadDelay;
+
+    // Metrics
+    private final boolean prometheusEnabled;
+    private final int prometheusPort;
+
+    private ConfigSnapshot(Map<String, Object> values) {
+        this.values = values;
+        this.serverFormats = compileServerFormats(values);
+
+        this.maxMessageLength = getInt(Constants.Config.CHAT_MAX_LENGTH, Constants.Defaults.MAX_MESSAGE_LENGTH);
+        this.censorBannedWords = Constants.BANNED_WORDS_CENSOR.equalsIgnoreCase(
+                getString(Constants.Config.BANNED_WORDS_ACTION, Constants.Defaults.BANNED_WORDS_ACTION));
+        this.useMiniMessage = getBoolean(Constants.Config.USE_MINI_MESSAGE, Constants.Defaults.USE_MINI_MESSAGE);
+        this.playerFormat = FormatTemplate.compile(getString(Constants.Format.PLAYER, Constants.Defaults.FORMAT_MSG));
+        this.consoleFormat = FormatTemplate.compile(getString(Constants.Format.CONSOLE, Constants.Defaults.CONSOLE_FORMAT_MSG));
+
+        this.cooldownDefault = getInt(Constants.Config.COOLDOWN_DEFAULT, Constants.Defaults.COOLDOWN_DEFAULT);
+        this.cooldownPremium = getInt(Constants.Config.COOLDOWN_PREMIUM, Constants.Defaults.COOLDOWN_PREMIUM);
+        this.cooldownVip = getInt(Constants.Config.COOLDOWN_VIP, Constants.Defaults.COOLDOWN_VIP);
+
+        this.asyncPipeline = !Constants.PIPELINE_MODE_INLINE.equalsIgnoreCase(
+                getString(Constants.Config.PIPELINE_MODE, Constants.Defaults.PIPELINE_MODE));
+        this.pipelineThreads = getInt(Constants.Config.PIPELINE_THREADS, Constants.Defaults.PIPELINE_THREADS);
+        this.pipelineQueueSize = getInt(Constants.Config.PIPELINE_QUEUE_SIZE, Constants.Defaults.PIPELINE_QUEUE_SIZE);
+
+        this.muteCacheTtl = getInt(Constants.Config.MUTE_CACHE_TTL, Constants.Defaults.MUTE_CACHE_TTL);
+        this.muteLookupTimeout = getInt(Constants.Config.MUTE_LOOKUP_TIMEOUT, Constants.Defaults.MUTE_LOOKUP_TIMEOUT);
+        this.muteFailClosed = Constants.MUTE_FAIL_CLOSED.equalsIgnoreCase(
+                getString(Constants.Config.MUTE_FAIL_MODE, Constants.Defaults.MUTE_FAIL_MODE));
+        this.muteBreakerThreshold = getInt(Constants.Config.MUTE_BREAKER_THRESHOLD, Constants.Defaults.MUTE_BREAKER_THRESHOLD);
+        this.muteBreakerCooldown = getInt(Constants.Config.MUTE_BREAKER_COOLDOWN, Constants.Defaults.MUTE_BREAKER_COOLDOWN);
+
+        this.h2Storage = Constants.STORAGE_BACKEND_H2.equalsIgnoreCase(
+                getString(Constants.Config.STORAGE_BACKEND, Constants.Defaults.STORAGE_BACKEND));
+        this.storageSaveDelay = getInt(Constants.Config.STORAGE_SAVE_DELAY, Constants.Defaults.STORAGE_SAVE_DELAY);
+        this.journalStorage = Constants.STORAGE_MODE_JOURNAL.equalsIgnoreCase(
+                getString(Constants.Config.STORAGE_MODE, Constants.Defaults.STORAGE_MODE));
+        this.journalSyncInterval = getInt(Constants.Config.JOURNAL_SYNC_INTERVAL, Constants.Defaults.JOURNAL_SYNC_INTERVAL);
+        this.journalCompactSize = getInt(Constants.Config.JOURNAL_COMPACT_SIZE, Constants.Defaults.JOURNAL_COMPACT_SIZE);
+
+        this.autoReload = getBoolean(Constants.Config.AUTO_RELOAD, Constants.Defaults.AUTO_RELOAD);
+        this.autoReloadDelay = getInt(Constants.Config.AUTO_RELOAD_DELAY, Constants.Defaults.AUTO_RELOAD_DELAY);
+
+        this.prometheusEnabled = getBoolean(Constants.Config.PROMETHEUS_ENABLED, Constants.Defaults.PROMETHEUS_ENABLED);
+        this.prometheusPort = getInt(Constants.Config.PROMETHEUS_PORT, Constants.Defaults.PROMETHEUS_PORT);
+    }
+
+    /**
+     * Compile a parsed YAML tree into a snapshot
+     * @param config The root map as loaded by SnakeYAML, may be null
+     * @return A new immutable snapshot
+     */
+    public static ConfigSnapshot compile(Map<?, ?> config) {
+        Map<String, Object> values = new HashMap<>();
+        if (config != null) {
+            flatten("", config, values);
+        }
+        return new ConfigSnapshot(Collections.unmodifiableMap(values));
+    }
+
+    /**
+     * Get a snapshot containing only defaults
+     */
+    public static ConfigSnapshot empty() {
+        return compile(null);
+    }
+
+    public String getString(String path, String defaultValue) {
+        Object value = values.get(path);
+        return value != null ? value.toString() : defaultValue;
+    }
+
+    public int getInt(String path, int defaultValue) {
+        Object value = values.get(path);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    public boolean getBoolean(String path, boolean defaultValue) {
+        Object value = values.get(path);
+        return value != null ? Boolean.parseBoolean(value.toString()) : defaultValue;
+    }
+
+    /**
+     * Get the format for a server, falling back to the default player format
+     */
+    public FormatTemplate getServerFormat(String serverName) {
+        // Server names are usually already lowercase, so try without allocating first
+        FormatTemplate format = serverFormats.get(serverName);
+        if (format == null) {
+            format = serverFormats.get(serverName.toLowerCase());
+        }
+        return format != null ? format : playerFormat;
+    }
+
+    /**
+     * Get a message compiled as a template with {name} and %name% placeholders. Templates are
+     * cached per format string for the lifetime of this snapshot, so a reload starts afresh.
+     */
+    public FormatTemplate getMessageTemplate(String path, String defaultValue) {
+        String text = getString(path, defaultValue);
+        if (text == null) {
+            text = "";
+        }
+
+        FormatTemplate template = messageTemplates.get(text);
+        if (template == null) {
+            template = FormatTemplate.compile(text, true);
+            if (messageTemplates.size() < MAX_MESSAGE_TEMPLATES) {
+                FormatTemplate existing = messageTemplates.putIfAbsent(text, template);
+                if (existing != null) {
+                    template = existing;
+                }
+            }
+        }
+        return template;
+    }
+
+    public int getMaxMessageLength() { return maxMessageLength; }
+    public boolean isCensorBannedWords() { return censorBannedWords; }
+    public boolean isUseMiniMessage() { return useMiniMessage; }
+    public FormatTemplate getPlayerFormat() { return playerFormat; }
+    public FormatTemplate getConsoleFormat() { return consoleFormat; }
+
+    public int getCooldownDefault() { return cooldownDefault; }
+    public int getCooldownPremium() { return cooldownPremium; }
+    public int getCooldownVip() { return cooldownVip; }
+
+    public boolean isAsyncPipeline() { return asyncPipeline; }
+    public int getPipelineThreads() { return pipelineThreads; }
+    public int getPipelineQueueSize() { return pipelineQueueSize; }
+
+    public int getMuteCacheTtl() { return muteCacheTtl; }
+    public int getMuteLookupTimeout() { return muteLookupTimeout; }
+    public boolean isMuteFailClosed() { return muteFailClosed; }
+    public int getMuteBreakerThreshold() { return muteBreakerThreshold; }
+    public int getMuteBreakerCooldown() { return muteBreakerCooldown; }
+
+    public boolean isH2Storage() { return h2Storage; }
+    public int getStorageSaveDelay() { return storageSaveDelay; }
+    public boolean isJournalStorage() { return journalStorage; }
+    public int getJournalSyncInterval() { return journalSyncInterval; }
+    public int getJournalCompactSize() { return journalCompactSize; }
+
+    public boolean isAutoReload() { return autoReload; }
+    public int getAutoReloadDelay() { return autoReloadDelay; }
+
+    public boolean isPrometheusEnabled() { return prometheusEnabled; }
+    public int getPrometheusPort() { return prometheusPort; }
+
+    private static void flatten(String prefix, Map<?, ?> map, Map<String, Object> values) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String path = prefix + entry.getKey();
+            Object value = entry.getValue();
+
+            if (value instanceof Map) {
+                flatten(path + ".", (Map<?, ?>) value, values);
+            } else if (value != null) {
+                values.put(path, value);
+            }
+        }
+    }
+
+    private static Map<String, FormatTemplate> compileServerFormats(Map<String, Object> values) {
+        Map<String, FormatTemplate> formats = new HashMap<>();
+        String prefix = Constants.Format.SERVER_PREFIX;
+
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            String path = entry.getKey();
+            if (!path.startsWith(prefix)) {
+                continue;
+            }
+
+            // Lookups use the lowercased server name, so only lowercase keys can ever match
+            String serverName = path.substring(prefix.length());
+            if (serverName.equals(serverName.toLowerCase())) {
+                formats.put(serverName, FormatTemplate.compile(entry.getValue().toString()));
+            }
+        }
+        return Collections.unmodifiableMap(formats);
+    }
+}
@@ -0,0 +1,311 @@
+package me.dev_dio.chatnova.manager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.velocitypowered.api.proxy.Player;
+
+import me.dev_dio.chatnova.Constants;
+
+/**
+ * Tracks /gc cooldowns as expiry deadlines. Entries live in striped open-addressing tables
+ * keyed by the two halves of the player's UUID, so no UUID or Long objects are kept around.
+ * Entries are dropped on disconnect and by a periodic sweep, so the table only ever holds
+ * players who chatted within their cooldown window.
+ * <p>
+ * Each player's cooldown tier is resolved from permissions once per session and cached.
+ * The tier, not the number of seconds, is cached, so a reload that changes the configured
+ * lengths takes effect immediately.
+ */
+public class CooldownManager {
+    private static final int SEGMENTS = 16;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Map<UUID, Tier> tiers = new ConcurrentHashMap<>();
+    private volatile ConfigSnapshot config = ConfigSnapshot.empty();
+
+    /**
+     * Cooldown tiers, highest priority first
+     */
+    public enum Tier {
+        VIP,
+        PREMIUM,
+        DEFAULT
+    }
+
+    public CooldownManager() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Apply new cooldown lengths and drop every cached tier so permissions are checked again
+     */
+    public void configure(ConfigSnapshot config) {
+        this.config = config;
+        tiers.clear();
+    }
+
+    /**
+     * Start a cooldown for a player using their tier's configured length
+     */
+    public void start(Player player) {
+        start(player.getUniqueId(), getCooldownSeconds(player));
+    }
+
+    /**
+     * Get the cooldown length for a player from their cached tier
+     */
+    public int getCooldownSeconds(Player player) {
+        Tier tier = tiers.get(player.getUniqueId());
+        if (tier == null) {
+            tier = resolveTier(player);
+            Tier resolved = tier;
+            // A message still in flight can start a cooldown after the player left. Velocity marks
+            // the player inactive before firing DisconnectEvent, and this check is atomic with
+            // evict(), so the tier is either removed by evict() or never cached at all.
+            tiers.computeIfAbsent(player.getUniqueId(), uuid -> player.isActive() ? resolved : null);
+        }
+
+        ConfigSnapshot snapshot = config;
+        switch (tier) {
+            case VIP:
+                return snapshot.getCooldownVip();
+            case PREMIUM:
+                return snapshot.getCooldownPremium();
+            default:
+                return snapshot.getCooldownDefault();
+        }
+    }
+
+    /**
+     * Resolve a player's cached tier again, e.g. after their permissions changed.
+     * Players without a cached tier are resolved on their next message anyway.
+     */
+    public void refreshTier(Player player) {
+        // Atomic with evict(), so a player who just left isn't added back
+        tiers.computeIfPresent(player.getUniqueId(), (uuid, tier) -> resolveTier(player));
+    }
+
+    /**
+     * Start a cooldown for a player
+     * @param cooldownSeconds Length of the cooldown, nothing is stored if it is zero or less
+     */
+    public void start(UUID uuid, int cooldownSeconds) {
+        if (cooldownSeconds <= 0) {
+            return;
+        }
+        long deadline = now() + cooldownSeconds * 1000L;
+        segmentFor(uuid).put(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), deadline);
+    }
+
+    /**
+     * Get how long a player still has to wait
+     * @return Remaining milliseconds, or 0 if the player is not on cooldown
+     */
+    public long getRemainingMillis(UUID uuid) {
+        long deadline = segmentFor(uuid).get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (deadline == Segment.ABSENT) {
+            return 0;
+        }
+        return Math.max(0, deadline - now());
+    }
+
+    /**
+     * Forget a player's cooldown and tier, e.g. when they disconnect
+     */
+    public void evict(UUID uuid) {
+        segmentFor(uuid).remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        tiers.remove(uuid);
+    }
+
+    /**
+     * Drop every expired cooldown
+     * @return The number of entries removed
+     */
+    public int sweep() {
+        long now = now();
+        int removed = 0;
+        for (Segment segment : segments) {
+            removed += segment.sweep(now);
+        }
+        return removed;
+    }
+
+    /**
+     * Get the number of stored cooldowns, including expired ones not swept yet
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private static Tier resolveTier(Player player) {
+        if (player.hasPermission(Constants.Permissions.GC_COOLDOWN_VIP)) {
+            return Tier.VIP;
+        } else if (player.hasPermission(Constants.Permissions.GC_COOLDOWN_PREMIUM)) {
+            return Tier.PREMIUM;
+        }
+        return Tier.DEFAULT;
+    }
+
+    private Segment segmentFor(UUID uuid) {
+        return segments[(int) (mix(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >>> 60)];
+    }
+
+    private static long now() {
+        // Monotonic, so wall clock adjustments can't extend or skip cooldowns
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private static long mix(long msb, long lsb) {
+        long hash = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * One lock-protected linear-probing table of (msb, lsb) -> deadline
+     */
+    private static final class Segment {
+        static final long ABSENT = Long.MIN_VALUE;
+
+        private long[] mostBits = new long[INITIAL_CAPACITY];
+        private long[] leastBits = new long[INITIAL_CAPACITY];
+        private long[] deadlines = new long[INITIAL_CAPACITY];
+        private boolean[] used = new boolean[INITIAL_CAPACITY];
+        private int size;
+
+        synchronized long get(long msb, long lsb) {
+            int slot = find(msb, lsb);
+            return slot >= 0 ? deadlines[slot] : ABSENT;
+        }
+
+        synchronized void put(long msb, long lsb, long deadline) {
+            int slot = find(msb, lsb);
+            if (slot >= 0) {
+                deadlines[slot] = deadline;
+                return;
+            }
+
+            // Keep the load factor at or below one half
+            if ((size + 1) * 2 > used.length) {
+                resize(used.length * 2);
+            }
+            insert(msb, lsb, deadline);
+        }
+
+        synchronized void remove(long msb, long lsb) {
+            int slot = find(msb, lsb);
+            if (slot >= 0) {
+                deleteAt(slot);
+            }
+        }
+
+        synchronized int sweep(long now) {
+            int before = size;
+            if (before == 0) {
+                return 0;
+            }
+
+            // Rebuilding avoids shifting entries around while iterating, and shrinks idle tables
+            long[] oldMost = mostBits;
+            long[] oldLeast = leastBits;
+            long[] oldDeadlines = deadlines;
+            boolean[] oldUsed = used;
+
+            int live = 0;
+            for (int i = 0; i < oldUsed.length; i++) {
+                if (oldUsed[i] && oldDeadlines[i] > now) {
+                    live++;
+                }
+            }
+            allocate(capacityFor(live));
+            for (int i = 0; i < oldUsed.length; i++) {
+                if (oldUsed[i] && oldDeadlines[i] > now) {
+                    insert(oldMost[i], oldLeast[i], oldDeadlines[i]);
+                }
+            }
+            return before - size;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private int find(long msb, long lsb) {
+            int mask = used.length - 1;
+            for (int slot = (int) mix(msb, lsb) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (mostBits[slot] == msb && leastBits[slot] == lsb) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void insert(long msb, long lsb, long deadline) {
+            int mask = used.length - 1;
+            int slot = (int) mix(msb, lsb) & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            mostBits[slot] = msb;
+            leastBits[slot] = lsb;
+            deadlines[slot] = deadline;
+            size++;
+        }
+
+        /**
+         * Backward-shift deletion, so lookups never need tombstones
+         */
+        private void deleteAt(int slot) {
+            int mask = used.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; used[next]; next = (next + 1) & mask) {
+                int home = (int) mix(mostBits[next], leastBits[next]) & mask;
+                // Move the entry back only if the hole lies on its probe path
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    mostBits[hole] = mostBits[next];
+                    leastBits[hole] = leastBits[next];
+                    deadlines[hole] = deadlines[next];
+                    hole = next;
+                }
+            }
+            used[hole] = false;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            long[] oldMost = mostBits;
+            long[] oldLeast = leastBits;
+            long[] oldDeadlines = deadlines;
+            boolean[] oldUsed = used;
+
+            allocate(capacity);
+            for (int i = 0; i < oldUsed.length; i++) {
+                if (oldUsed[i]) {
+                    insert(oldMost[i], oldLeast[i], oldDeadlines[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            mostBits = new long[capacity];
+            leastBits = new long[capacity];
+            deadlines = new long[capacity];
+            used = new boolean[capacity];
+            size = 0;
+        }
+
+        private static int capacityFor(int entries) {
+            return Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, entries * 4 - 1)) << 1);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package me.dev_dio.chatnova.manager;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+
+/**
+ * Watches the plugin folder and reloads files after they were edited. Events are collected
+ * until the folder has been quiet for the configured delay, so an editor saving in several
+ * steps causes one reload, and each changed file only runs its own reload action. Reloads
+ * run on the watcher thread, never on a chat or command thread.
+ */
+public class FileWatcher {
+    private final Path directory;
+    private final Logger logger;
+    private final long delayMillis;
+    private final Predicate<Path> ignore;
+    private final Map<Path, Runnable> actions = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * @param directory The folder containing the watched files
+     * @param delayMillis How long the folder must be quiet before changes are reloaded
+     * @param ignore Tells which changes were made by the plugin itself and need no reload
+     */
+    public FileWatcher(Path directory, Logger logger, long delayMillis, Predicate<Path> ignore) {
+        this.directory = directory;
+        this.logger = logger;
+        this.delayMillis = delayMillis;
+        this.ignore = ignore;
+    }
+
+    /**
+     * Run an action whenever a file in the folder changes
+     * @param fileName The file name, relative to the watched folder
+     */
+    public void watch(String fileName, Runnable action) {
+        actions.put(Path.of(fileName), action);
+    }
+
+    /**
+     * Start watching on a background thread
+     */
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        // Atomic saves replace the file, which shows up as a create rather than a modify
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::run, "ChatNova-Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void shutdown() {
+        if (watchService == null) {
+            return;
+        }
+
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.error("Failed to stop file watcher", e);
+        }
+        thread.interrupt();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watchService.take(), changed);
+
+                // Keep collecting until nothing changed for a whole delay
+                WatchKey key;
+                while ((key = watchService.poll(delayMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+
+                for (Path file : changed) {
+                    reload(file);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, reload everything to be safe
+                changed.addAll(actions.keySet());
+            } else if (actions.containsKey((Path) event.context())) {
+                changed.add((Path) event.context());
+            }
+        }
+        key.reset();
+    }
+
+    private void reload(Path file) {
+        Path path = directory.resolve(file);
+        if (ignore.test(path)) {
+            return;
+        }
+
+        try {
+            logger.info("Detected changes to {}, reloading", file);
+            actions.get(file).run();
+        } catch (RuntimeException e) {
+            // Most likely a half-saved or invalid file, the next save triggers another reload
+            logger.error("Failed to reload " + file, e);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package me.dev_dio.chatnova.manager;
 
-import java.util.Set;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -9,12 +8,12 @@ import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 
-import me.dev_dio.chatnova.Constants;
+import me.dev_dio.chatnova.util.FormatTemplate;
+import me.dev_dio.chatnova.util.FormatUtil;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.luckperms.api.LuckPerms;
-import net.luckperms.api.model.user.User;
 
 public class MessageManager {
     private final ConfigManager configManager;
@@ -22,13 +21,19 @@ public class MessageManager {
     private final ProxyServer server;
     private final Logger logger;
     private final MiniMessage miniMessage;
+    private final ComponentCache componentCache;
+    private final RecipientIndex recipientIndex;
+    private final PrefixCache prefixCache;
     
-    public MessageManager(ConfigManager configManager, LuckPerms luckPerms, ProxyServer server, Logger logger) {
+    public MessageManager(ConfigManager configManager, LuckPerms luckPerms, ProxyServer server, PlayerStateStore playerState, Logger logger) {
         this.configManager = configManager;
         this.luckPerms = luckPerms;
         this.server = server;
         this.logger = logger;
         this.miniMessage = MiniMessage.miniMessage();
+        this.componentCache = new ComponentCache();
+        this.recipientIndex = new RecipientIndex(playerState);
+        this.prefixCache = new PrefixCache(luckPerms, logger);
     }
     
     /**
@@ -49,67 +54,131 @@ public class MessageManager {
     /**
      * Send a global chat message to all eligible players
      */
-    public void sendGlobalMessage(Player player, String message, Set<UUID> hiddenPlayers) {
+    public void sendGlobalMessage(Player player, String message) {
         String serverName = player.getCurrentServer()
                 .map(server -> server.getServerInfo().getName())
                 .orElse("Unknown");
         
+        broadcast(renderGlobalMessage(player, serverName, message));
+        logGlobalMessage(player, serverName, message);
+    }
+    
+    /**
+     * Render a player's global chat message using the format of the server they are on.
+     * The part of the format before {message} is parsed once per player and reused from
+     * the component cache, so only the player's own text is parsed for each message.
+     */
+    public Component renderGlobalMessage(Player player, String serverName, String message) {
         String rankPrefix = getRankPrefixFromLuckPerms(player.getUniqueId());
-        String formatTemplate = getServerFormat(serverName);
+        String username = player.getUsername();
+        FormatTemplate formatTemplate = configManager.getSnapshot().getServerFormat(serverName);
+        boolean useMiniMessage = isUsingMiniMessage();
         
-        // Replace placeholders one by one to avoid conflicts
-        String formattedMessage = formatTemplate;
-        formattedMessage = formattedMessage.replace("{server}", serverName);
-        formattedMessage = formattedMessage.replace("{rank}", rankPrefix != null ? rankPrefix : "");
-        formattedMessage = formattedMessage.replace("{prefix}", rankPrefix != null ? rankPrefix : "");
-        formattedMessage = formattedMessage.replace("{player}", player.getUsername());
-        formattedMessage = formattedMessage.replace("{message}", message);
-        
-        // Also replace any Velocity internal placeholders that might have leaked through
-        formattedMessage = formattedMessage.replace("{MINECRAFT_USERNAME}", player.getUsername());
-        
-        Component finalMessage = formatText(formattedMessage);
+        ComponentCache.Header header = componentCache.get(player.getUniqueId(), formatTemplate, serverName, rankPrefix, username, useMiniMessage);
+        if (header == null) {
+            header = buildHeader(formatTemplate, serverName, rankPrefix, username, useMiniMessage);
+            componentCache.put(player.getUniqueId(), header);
+        }
         
-        // Send to all players except those who have hidden global chat
-        server.getAllPlayers().stream()
-                .filter(p -> !hiddenPlayers.contains(p.getUniqueId()))
-                .forEach(p -> p.sendMessage(finalMessage));
+        if (header.getComponent() != null) {
+            return Component.textOfChildren(header.getComponent(), formatText(header.getCarry() + message));
+        }
         
-        // Log to console
-        logger.info("[Global Chat] [{}] {}: {}", serverName, player.getUsername(), stripFormatting(message));
+        // Single pass over the precompiled template, values are never re-scanned for placeholders
+        return formatText(formatTemplate.render(placeholder -> resolveGlobalPlaceholder(placeholder, serverName, rankPrefix, username, message)));
     }
     
     /**
-     * Send a global chat message from console
+     * Get the cache of prebuilt chat headers
      */
-    public void sendConsoleGlobalMessage(String message, Set<UUID> hiddenPlayers) {
-        String formatTemplate = configManager.getString(Constants.Format.CONSOLE, Constants.Defaults.CONSOLE_FORMAT_MSG);
-        
-        String formattedMessage = formatTemplate.replace("{message}", message);
-        Component finalMessage = formatText(formattedMessage);
+    public ComponentCache getComponentCache() {
+        return componentCache;
+    }
+    
+    /**
+     * Parse the static part of a server format, or mark it as uncacheable if it can't be split cleanly
+     */
+    private ComponentCache.Header buildHeader(FormatTemplate formatTemplate, String serverName, String rankPrefix, String username, boolean useMiniMessage) {
+        Component component = null;
+        String carry = null;
         
-        // Send to all players except those who have hidden global chat
-        server.getAllPlayers().stream()
-                .filter(p -> !hiddenPlayers.contains(p.getUniqueId()))
-                .forEach(p -> p.sendMessage(finalMessage));
+        FormatTemplate[] parts = formatTemplate.splitAt("message");
+        if (parts != null) {
+            String tail = parts[1].render(placeholder -> resolveGlobalPlaceholder(placeholder, serverName, rankPrefix, username, null));
+            String head = parts[0].render(placeholder -> resolveGlobalPlaceholder(placeholder, serverName, rankPrefix, username, null));
+            
+            // Anything after {message} would need the message in between, so only trailing placeholders are cached
+            carry = tail.isEmpty() ? ComponentCache.computeCarry(head, useMiniMessage) : null;
+            if (carry != null) {
+                component = formatText(head);
+            }
+        }
         
-        // Log to console
-        logger.info("[Global Chat] Administrator: {}", stripFormatting(message));
+        return new ComponentCache.Header(formatTemplate, serverName, rankPrefix, username, useMiniMessage, component, carry);
+    }
+    
+    private String resolveGlobalPlaceholder(String placeholder, String serverName, String rankPrefix, String username, String message) {
+        switch (placeholder) {
+            case "server":
+                return serverName;
+            case "rank":
+            case "prefix":
+                return rankPrefix;
+            case "player":
+            // Velocity internal placeholder that might have leaked through
+            case "MINECRAFT_USERNAME":
+                return username;
+            case "message":
+                return message;
+            default:
+                return null;
+        }
     }
     
     /**
-     * Get the appropriate format for a specific server
+     * Send an already rendered global chat message to all players except those who have hidden global chat
+     * @return Number of players the message was sent to
      */
-    private String getServerFormat(String serverName) {
-        String serverFormatPath = Constants.Format.SERVER_PREFIX + serverName.toLowerCase();
-        String serverFormat = configManager.getString(serverFormatPath, null);
-        
-        if (serverFormat != null) {
-            return serverFormat;
+    public int broadcast(Component finalMessage) {
+        Player[] recipients = recipientIndex.getRecipients();
+        for (Player recipient : recipients) {
+            recipient.sendMessage(finalMessage);
         }
+        return recipients.length;
+    }
+    
+    /**
+     * Get the cache of LuckPerms prefixes
+     */
+    public PrefixCache getPrefixCache() {
+        return prefixCache;
+    }
+    
+    /**
+     * Get the index of players that receive global chat
+     */
+    public RecipientIndex getRecipientIndex() {
+        return recipientIndex;
+    }
+    
+    /**
+     * Log a player's global chat message to console
+     */
+    public void logGlobalMessage(Player player, String serverName, String message) {
+        logger.info("[Global Chat] [{}] {}: {}", serverName, player.getUsername(), stripFormatting(message));
+    }
+    
+    /**
+     * Send a global chat message from console
+     */
+    public void sendConsoleGlobalMessage(String message) {
+        FormatTemplate formatTemplate = configManager.getSnapshot().getConsoleFormat();
+        
+        String formattedMessage = formatTemplate.render(placeholder -> "message".equals(placeholder) ? message : null);
+        broadcast(formatText(formattedMessage));
         
-        // Fallback to default player format
-        return configManager.getString(Constants.Format.PLAYER, Constants.Defaults.FORMAT_MSG);
+        // Log to console
+        logger.info("[Global Chat] Administrator: {}", stripFormatting(message));
     }
     
     /**
@@ -177,46 +246,29 @@ public class MessageManager {
      * Get formatted message with placeholder replacement
      */
     public String getFormattedMessage(String configPath, String defaultMessage, String placeholder, String replacement) {
-        String message = configManager.getString(configPath, defaultMessage);
-        return message.replace(placeholder, replacement);
+        FormatTemplate message = configManager.getSnapshot().getMessageTemplate(configPath, defaultMessage);
+        return FormatUtil.applyPlaceholders(message, placeholder, replacement);
     }
     
     /**
      * Get formatted message with multiple placeholder replacements
      */
     public String getFormattedMessage(String configPath, String defaultMessage, String... replacements) {
-        String message = configManager.getString(configPath, defaultMessage);
-        
-        for (int i = 0; i < replacements.length; i += 2) {
-            if (i + 1 < replacements.length) {
-                message = message.replace(replacements[i], replacements[i + 1]);
-            }
-        }
-        
-        return message;
+        FormatTemplate message = configManager.getSnapshot().getMessageTemplate(configPath, defaultMessage);
+        return FormatUtil.applyPlaceholders(message, replacements);
     }
     
     /**
      * Check if MiniMessage format is enabled
      */
     private boolean isUsingMiniMessage() {
-        return configManager.getBoolean(Constants.Config.USE_MINI_MESSAGE, Constants.Defaults.USE_MINI_MESSAGE);
+        return configManager.getSnapshot().isUseMiniMessage();
     }
     
     /**
-     * Get rank prefix from LuckPerms
+     * Get rank prefix from LuckPerms, served from the prefix cache
      */
     private String getRankPrefixFromLuckPerms(UUID uuid) {
-        try {
-            User user = luckPerms.getUserManager().getUser(uuid);
-            
-            if (user != null) {
-                String prefix = user.getCachedData().getMetaData().getPrefix();
-                return prefix != null ? prefix : "";
-            }
-        } catch (Exception e) {
-            logger.error("Error getting prefix for player " + uuid, e);
-        }
-        return "";
+        return prefixCache.getPrefix(uuid);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,344 @@
+package me.dev_dio.chatnova.manager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+
+import litebans.api.Database;
+import litebans.api.Entry;
+import litebans.api.Events;
+import me.dev_dio.chatnova.Constants;
+import me.dev_dio.chatnova.util.CacheStats;
+import me.dev_dio.chatnova.util.CircuitBreaker;
+
+/**
+ * Caches LiteBans mute status per player so /gc only touches the database on a cache miss.
+ * Entries expire after a TTL, are invalidated by LiteBans punishment events and evicted on disconnect.
+ * Concurrent misses for the same player share one database lookup.
+ * Database lookups are bounded by a deadline and guarded by a {@link CircuitBreaker}; when either
+ * trips, the configured fail-open or fail-closed policy decides the answer.
+ */
+public class MuteManager {
+    private static final String MUTE_TYPE = "mute";
+    private static final int LOOKUP_THREADS = 4;
+    private static final int LOOKUP_QUEUE_SIZE = 256;
+
+    private final Logger logger;
+    private final MuteSource source;
+    private final Map<UUID, MuteStatus> cache;
+    private final ThreadPoolExecutor lookupExecutor;
+    private final CircuitBreaker circuitBreaker;
+    private final CacheStats stats = new CacheStats();
+    private volatile long ttlMillis;
+    private volatile long timeoutMillis;
+    private volatile boolean failClosed;
+    private Events.Listener liteBansListener;
+
+    /**
+     * Answers whether a player is muted, may block on a database
+     */
+    @FunctionalInterface
+    public interface MuteSource {
+        boolean isMuted(UUID uuid);
+    }
+
+    public MuteManager(Logger logger) {
+        this(logger, uuid -> Database.get().isPlayerMuted(uuid, null));
+    }
+
+    /**
+     * @param source Where mutes are looked up, LiteBans unless running outside the proxy
+     */
+    public MuteManager(Logger logger, MuteSource source) {
+        this.logger = logger;
+        this.source = source;
+        this.cache = new ConcurrentHashMap<>();
+        this.lookupExecutor = new ThreadPoolExecutor(
+            LOOKUP_THREADS, LOOKUP_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(LOOKUP_QUEUE_SIZE),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ChatNova-Mute-Lookup");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.circuitBreaker = new CircuitBreaker("LiteBans", logger,
+                Constants.Defaults.MUTE_BREAKER_THRESHOLD, Constants.Defaults.MUTE_BREAKER_COOLDOWN * 1000L);
+        this.ttlMillis = Constants.Defaults.MUTE_CACHE_TTL * 1000L;
+        this.timeoutMillis = Constants.Defaults.MUTE_LOOKUP_TIMEOUT;
+    }
+
+    /**
+     * Apply cache settings from config
+     */
+    public void configure(ConfigSnapshot config) {
+        ttlMillis = config.getMuteCacheTtl() * 1000L;
+        timeoutMillis = config.getMuteLookupTimeout();
+        failClosed = config.isMuteFailClosed();
+        circuitBreaker.configure(config.getMuteBreakerThreshold(), config.getMuteBreakerCooldown() * 1000L);
+    }
+
+    /**
+     * Check if a player is muted, using the cached status when it is still fresh
+     */
+    public boolean isMuted(UUID uuid) {
+        MuteStatus status = cache.get(uuid);
+        if (status != null && !status.invalidated && System.currentTimeMillis() - status.loadedAt < ttlMillis) {
+            stats.recordHit();
+            return status.muted;
+        }
+        stats.recordMiss();
+
+        if (!circuitBreaker.allowRequest()) {
+            return failClosed;
+        }
+
+        Lookup lookup;
+        try {
+            lookup = lookup(uuid);
+        } catch (RejectedExecutionException e) {
+            // Every lookup thread is stuck on the database
+            circuitBreaker.recordFailure();
+            logger.warn("Mute lookup queue is full, skipping lookup for player {}", uuid);
+            return failClosed;
+        }
+
+        try {
+            return lookup.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The lookup keeps running and will still fill the cache if it finishes
+            settle(lookup, false);
+            logger.warn("Mute lookup for player {} timed out after {} ms", uuid, timeoutMillis);
+        } catch (ExecutionException e) {
+            logger.warn("Could not check mute status for player {}: {}", uuid, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return failClosed;
+    }
+
+    /**
+     * Get the current state of the LiteBans circuit breaker
+     */
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Warm the cache for a player in the background
+     */
+    public void prefetch(UUID uuid) {
+        // Never take the single half-open trial, only a /gc waiting for the answer may settle it
+        if (circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+            return;
+        }
+
+        try {
+            lookup(uuid);
+        } catch (RejectedExecutionException e) {
+            // Busy or shutting down, the next /gc will look it up
+        }
+    }
+
+    /**
+     * Drop the cached status so the next check goes to the database
+     */
+    public void invalidate(UUID uuid) {
+        // A lookup already running may have read the old status, so it isn't joined any more
+        cache.computeIfPresent(uuid, (key, status) -> MuteStatus.invalidated(System.currentTimeMillis()));
+    }
+
+    /**
+     * Remove a player from the cache, e.g. when they disconnect
+     */
+    public void evict(UUID uuid) {
+        cache.remove(uuid);
+    }
+
+    /**
+     * Get the number of cached mute statuses
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Get the number of lookups waiting for a free lookup thread
+     */
+    public int getQueuedLookups() {
+        return lookupExecutor.getQueue().size();
+    }
+
+    /**
+     * Invalidate cached statuses whenever LiteBans adds or removes a mute
+     */
+    public void registerLiteBansEvents() {
+        liteBansListener = new Events.Listener() {
+            @Override
+            public void entryAdded(Entry entry) {
+                handleEntry(entry);
+            }
+
+            @Override
+            public void entryRemoved(Entry entry) {
+                handleEntry(entry);
+            }
+        };
+
+        try {
+            Events.get().register(liteBansListener);
+        } catch (Exception | NoClassDefFoundError e) {
+            liteBansListener = null;
+            logger.warn("Could not register LiteBans events, mute cache will rely on its TTL: {}", e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        if (liteBansListener != null) {
+            try {
+                Events.get().unregister(liteBansListener);
+            } catch (Exception | NoClassDefFoundError e) {
+                // LiteBans is already gone
+            }
+            liteBansListener = null;
+        }
+        lookupExecutor.shutdownNow();
+        cache.clear();
+    }
+
+    private void handleEntry(Entry entry) {
+        if (!MUTE_TYPE.equals(entry.getType()) || entry.getUuid() == null) {
+            return;
+        }
+
+        try {
+            invalidate(UUID.fromString(entry.getUuid()));
+        } catch (IllegalArgumentException e) {
+            // Not a player UUID (e.g. an IP-only punishment)
+        }
+    }
+
+    /**
+     * Start a database lookup for a player, or join the one already in flight, so a burst of
+     * messages after a join costs a single query
+     * @throws RejectedExecutionException if a new lookup could not be queued
+     */
+    private Lookup lookup(UUID uuid) {
+        long startedAt = System.currentTimeMillis();
+        Lookup started = new Lookup(startedAt, startedAt + timeoutMillis);
+
+        // The result is only stored while this entry exists, so a lookup that finishes after
+        // the player left doesn't bring back the entry evict() removed
+        MuteStatus status = cache.compute(uuid, (key, current) -> {
+            if (current == null) {
+                return MuteStatus.invalidated(startedAt).withPending(started);
+            }
+            return current.pending != null ? current : current.withPending(started);
+        });
+        if (status.pending != started) {
+            return status.pending;
+        }
+
+        try {
+            CompletableFuture.supplyAsync(() -> source.isMuted(uuid), lookupExecutor)
+                    .whenComplete((muted, error) -> finish(uuid, started, muted, error));
+        } catch (RejectedExecutionException e) {
+            // Let the next miss try again, and fail anyone who joined in the meantime
+            cache.computeIfPresent(uuid, (key, current) -> current.pending == started ? current.withPending(null) : current);
+            started.result.completeExceptionally(e);
+            throw e;
+        }
+        return started;
+    }
+
+    private void finish(UUID uuid, Lookup lookup, Boolean muted, Throwable error) {
+        // Answering after the deadline is as bad as not answering, a slow database must trip the breaker
+        settle(lookup, error == null && System.currentTimeMillis() <= lookup.deadline);
+
+        cache.computeIfPresent(uuid, (key, current) -> {
+            MuteStatus status = current.pending == lookup ? current.withPending(null) : current;
+
+            // Don't overwrite a newer result or an invalidation that happened while we were querying
+            if (error != null || status.loadedAt > lookup.startedAt) {
+                return status;
+            }
+            return new MuteStatus(muted, lookup.startedAt, false, status.pending);
+        });
+
+        // Callers see the answer only once the breaker and cache have it
+        if (error != null) {
+            lookup.result.completeExceptionally(error);
+        } else {
+            lookup.result.complete(muted);
+        }
+    }
+
+    /**
+     * Record the outcome of a lookup with the circuit breaker, unless it was already recorded.
+     * A lookup is settled by whichever comes first: it finishing, or a caller giving up on it.
+     */
+    private void settle(Lookup lookup, boolean success) {
+        if (!lookup.settled.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (success) {
+            circuitBreaker.recordSuccess();
+        } else {
+            circuitBreaker.recordFailure();
+        }
+    }
+
+    /**
+     * A database lookup in flight, shared by every caller that missed the cache meanwhile
+     */
+    private static final class Lookup {
+        private final long startedAt;
+        private final long deadline;
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private Lookup(long startedAt, long deadline) {
+            this.startedAt = startedAt;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class MuteStatus {
+        private final boolean muted;
+        private final long loadedAt;
+        private final boolean invalidated;
+        // The lookup refreshing this entry, null if none is running
+        private final Lookup pending;
+
+        private MuteStatus(boolean muted, long loadedAt, boolean invalidated, Lookup pending) {
+            this.muted = muted;
+            this.loadedAt = loadedAt;
+            this.invalidated = invalidated;
+            this.pending = pending;
+        }
+
+        private static MuteStatus invalidated(long at) {
+            return new MuteStatus(false, at, true, null);
+        }
+
+        private MuteStatus withPending(Lookup lookup) {
+            return new MuteStatus(muted, loadedAt, invalidated, lookup);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package me.dev_dio.chatnova.manager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Holds the blacklist, hidden global chat players and the global mute flag. Every set is an
+ * immutable snapshot behind a volatile field: readers such as the chat pipeline never lock,
+ * while writers copy, modify and publish a new snapshot under the store's lock. Reloads swap
+ * a whole set in one write, so readers see either the old or the new contents.
+ */
+public class PlayerStateStore {
+    private volatile Set<String> blacklistedPlayers = Set.of();
+    private volatile Set<UUID> hiddenGlobalChat = Set.of();
+    private volatile boolean globalChatMuted;
+
+    // Blacklist (names are stored lowercase)
+    public boolean isBlacklisted(String playerName) {
+        return blacklistedPlayers.contains(playerName.toLowerCase());
+    }
+
+    /**
+     * @return true if the player wasn't blacklisted before
+     */
+    public synchronized boolean addBlacklisted(String playerName) {
+        String name = playerName.toLowerCase();
+        if (blacklistedPlayers.contains(name)) {
+            return false;
+        }
+        blacklistedPlayers = copyWith(blacklistedPlayers, set -> set.add(name));
+        return true;
+    }
+
+    /**
+     * @return true if the player was blacklisted before
+     */
+    public synchronized boolean removeBlacklisted(String playerName) {
+        String name = playerName.toLowerCase();
+        if (!blacklistedPlayers.contains(name)) {
+            return false;
+        }
+        blacklistedPlayers = copyWith(blacklistedPlayers, set -> set.remove(name));
+        return true;
+    }
+
+    /**
+     * Get the current blacklist snapshot, which never changes afterwards
+     */
+    public Set<String> getBlacklistedPlayers() {
+        return blacklistedPlayers;
+    }
+
+    /**
+     * Replace the whole blacklist, e.g. after blacklist.yml was loaded
+     */
+    public synchronized void replaceBlacklist(Collection<String> playerNames) {
+        Set<String> names = new HashSet<>();
+        for (String name : playerNames) {
+            names.add(name.toLowerCase());
+        }
+        blacklistedPlayers = Set.copyOf(names);
+    }
+
+    // Hidden global chat
+    public boolean isGlobalChatHidden(UUID playerUuid) {
+        return hiddenGlobalChat.contains(playerUuid);
+    }
+
+    /**
+     * Flip whether a player sees global chat
+     * @return true if global chat is now hidden for the player
+     */
+    public synchronized boolean toggleGlobalChatHidden(UUID playerUuid) {
+        boolean hide = !hiddenGlobalChat.contains(playerUuid);
+        hiddenGlobalChat = copyWith(hiddenGlobalChat, set -> {
+            if (hide) {
+                set.add(playerUuid);
+            } else {
+                set.remove(playerUuid);
+            }
+        });
+        return hide;
+    }
+
+    /**
+     * Set whether a player sees global chat, e.g. after their settings were loaded on join
+     * @return true if the setting changed
+     */
+    public synchronized boolean setGlobalChatHidden(UUID playerUuid, boolean hidden) {
+        if (hiddenGlobalChat.contains(playerUuid) == hidden) {
+            return false;
+        }
+        hiddenGlobalChat = copyWith(hiddenGlobalChat, set -> {
+            if (hidden) {
+                set.add(playerUuid);
+            } else {
+                set.remove(playerUuid);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Get the current hidden player snapshot, which never changes afterwards
+     */
+    public Set<UUID> getHiddenGlobalChat() {
+        return hiddenGlobalChat;
+    }
+
+    /**
+     * Replace every hidden player, e.g. after hidden_gc.yml was loaded
+     */
+    public synchronized void replaceHiddenGlobalChat(Collection<UUID> playerUuids) {
+        hiddenGlobalChat = Set.copyOf(playerUuids);
+    }
+
+    // Global mute
+    public boolean isGlobalChatMuted() {
+        return globalChatMuted;
+    }
+
+    /**
+     * @return true if global chat is now muted
+     */
+    public synchronized boolean toggleGlobalChatMute() {
+        globalChatMuted = !globalChatMuted;
+        return globalChatMuted;
+    }
+
+    private static <T> Set<T> copyWith(Set<T> current, Consumer<Set<T>> change) {
+        Set<T> copy = new HashSet<>(current);
+        change.accept(copy);
+        return Set.copyOf(copy);
+    }
+}
@@ -0,0 +1,90 @@
+package me.dev_dio.chatnova.manager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+
+import me.dev_dio.chatnova.util.CacheStats;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.model.user.User;
+
+/**
+ * Caches each online player's LuckPerms prefix. Entries are filled on login and replaced or
+ * dropped by LuckPerms events, so the chat path is a single map lookup. The parsed form of
+ * the prefix is kept by the {@link ComponentCache} header built from it.
+ */
+public class PrefixCache {
+    private final LuckPerms luckPerms;
+    private final Logger logger;
+    private final Map<UUID, String> prefixes = new ConcurrentHashMap<>();
+    private final CacheStats stats = new CacheStats();
+
+    public PrefixCache(LuckPerms luckPerms, Logger logger) {
+        this.luckPerms = luckPerms;
+        this.logger = logger;
+    }
+
+    /**
+     * Get a player's prefix, or an empty string if they have none or LuckPerms hasn't loaded them.
+     * This never asks LuckPerms to load a user.
+     */
+    public String getPrefix(UUID uuid) {
+        String prefix = prefixes.get(uuid);
+        if (prefix != null) {
+            stats.recordHit();
+            return prefix;
+        }
+        stats.recordMiss();
+
+        // getUser only returns users LuckPerms already holds in memory
+        User user = luckPerms.getUserManager().getUser(uuid);
+        if (user == null) {
+            return "";
+        }
+        return refresh(user);
+    }
+
+    /**
+     * Read the prefix of a loaded player into the cache, e.g. on login
+     */
+    public void load(UUID uuid) {
+        User user = luckPerms.getUserManager().getUser(uuid);
+        if (user != null) {
+            refresh(user);
+        }
+    }
+
+    /**
+     * Store the current prefix of a user whose data LuckPerms just recalculated
+     * @return The cached prefix
+     */
+    public String refresh(User user) {
+        String prefix = "";
+        try {
+            String metaPrefix = user.getCachedData().getMetaData().getPrefix();
+            prefix = metaPrefix != null ? metaPrefix : "";
+        } catch (Exception e) {
+            logger.error("Error getting prefix for player " + user.getUniqueId(), e);
+        }
+        prefixes.put(user.getUniqueId(), prefix);
+        return prefix;
+    }
+
+    public void invalidate(UUID uuid) {
+        prefixes.remove(uuid);
+    }
+
+    public void clear() {
+        prefixes.clear();
+    }
+
+    public int size() {
+        return prefixes.size();
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,337 @@
+package me.dev_dio.chatnova.manager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import me.dev_dio.chatnova.ChatNova;
+import me.dev_dio.chatnova.pipeline.ChatStats;
+import me.dev_dio.chatnova.util.CacheStats;
+import me.dev_dio.chatnova.util.Histogram;
+
+/**
+ * Serves ChatNova's counters, latency histograms, queue depths and cache statistics in the
+ * Prometheus text format on a localhost port. Scrapes are answered on a single thread of their
+ * own and only read counters, so they never wait for or hold up a chat message; the text is
+ * rendered into buffers that are reused for every scrape, and numbers are written without
+ * going through strings.
+ */
+public class PrometheusExporter {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String PATH = "/metrics";
+
+    // Latency buckets near 10us .. 2.5s, moved up to the histogram's own bucket bounds so every
+    // le count is exact and histogram_quantile interpolates between the real edges
+    private static final long[] BUCKET_NANOS = bucketBounds(
+        10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L, 1_000_000L, 2_500_000L,
+        5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L
+    );
+    private static final String[] BUCKET_LABELS = secondsLabels(BUCKET_NANOS);
+    // values() copies the array on every call
+    private static final ChatStats.RejectReason[] REJECT_REASONS = ChatStats.RejectReason.values();
+    private static final ChatStats.Stage[] STAGES = ChatStats.Stage.values();
+    private static final int NANOS_DECIMALS = 9;
+    private static final int RATIO_DECIMALS = 6;
+    private static final long RATIO_SCALE = 1_000_000L;
+
+    private final ChatNova plugin;
+    private final Logger logger;
+
+    private HttpServer httpServer;
+    private ExecutorService executor;
+    private int port = -1;
+
+    public PrometheusExporter(ChatNova plugin, Logger logger) {
+        this.plugin = plugin;
+        this.logger = logger;
+    }
+
+    /**
+     * Start, stop or move the endpoint to match the config
+     */
+    public synchronized void configure(ConfigSnapshot config) {
+        int configuredPort = config.isPrometheusEnabled() ? config.getPrometheusPort() : -1;
+        if (configuredPort == port) {
+            return;
+        }
+
+        shutdown();
+        if (configuredPort < 0) {
+            return;
+        }
+
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), configuredPort), 0);
+            server.createContext(PATH, new Scraper());
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ChatNova-Metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.start();
+
+            httpServer = server;
+            port = configuredPort;
+            logger.info("Serving Prometheus metrics on http://127.0.0.1:{}{}", configuredPort, PATH);
+        } catch (IOException e) {
+            logger.error("Failed to start the Prometheus metrics endpoint on port " + configuredPort, e);
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        port = -1;
+    }
+
+    private static long[] bucketBounds(long... nanos) {
+        long[] bounds = new long[nanos.length];
+        for (int i = 0; i < nanos.length; i++) {
+            bounds[i] = Histogram.getBucketUpperBound(nanos[i]);
+        }
+        return bounds;
+    }
+
+    private static String[] secondsLabels(long[] nanos) {
+        String[] labels = new String[nanos.length];
+        for (int i = 0; i < nanos.length; i++) {
+            labels[i] = BigDecimal.valueOf(nanos[i], 9).stripTrailingZeros().toPlainString();
+        }
+        return labels;
+    }
+
+    /**
+     * Answers scrapes for one HTTP server, on that server's single thread. Each server gets its
+     * own buffers, so a scrape the previous server is still finishing after a port change never
+     * writes into the buffers of the new one.
+     */
+    private final class Scraper implements HttpHandler {
+        private final StringBuilder text = new StringBuilder(16384);
+        private byte[] buffer = new byte[16384];
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+
+                int length;
+                try {
+                    text.setLength(0);
+                    render();
+                    length = encode();
+                } catch (RuntimeException e) {
+                    logger.error("Failed to render Prometheus metrics", e);
+                    exchange.sendResponseHeaders(500, -1);
+                    return;
+                }
+
+                // The status goes out only once the whole response is rendered
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(buffer, 0, length);
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+
+        /**
+         * Copy the rendered text into the byte buffer, growing it only when the text outgrew it
+         * @return Number of bytes to send
+         */
+        private int encode() {
+            int length = text.length();
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+
+            // Metric names, labels and numbers are all ASCII
+            for (int i = 0; i < length; i++) {
+                buffer[i] = (byte) text.charAt(i);
+            }
+            return length;
+        }
+
+        private void render() {
+            ChatStats stats = plugin.getChatPipeline().getStats();
+
+            // Throughput and verdicts
+            header("chatnova_messages_accepted_total", "counter", "Messages broadcast to global chat");
+            sample("chatnova_messages_accepted_total", null, null, stats.getAccepted());
+
+            header("chatnova_messages_rejected_total", "counter", "Messages not broadcast, by reason");
+            for (ChatStats.RejectReason reason : REJECT_REASONS) {
+                sample("chatnova_messages_rejected_total", "reason", reason.getDisplayName(), stats.getRejected(reason));
+            }
+
+            // Latencies
+            header("chatnova_stage_duration_seconds", "histogram", "Time spent in each pipeline stage");
+            for (ChatStats.Stage stage : STAGES) {
+                histogram("chatnova_stage_duration_seconds", "stage", stage.getDisplayName(), stats.getStage(stage));
+            }
+
+            header("chatnova_message_duration_seconds", "histogram", "Time from submitting a message until it was broadcast or rejected");
+            histogram("chatnova_message_duration_seconds", null, null, stats.getTotal());
+
+            Histogram recipients = stats.getRecipients();
+            header("chatnova_broadcast_recipients", "summary", "Players each accepted message was sent to");
+            sample("chatnova_broadcast_recipients_sum", null, null, recipients.getSum());
+            sample("chatnova_broadcast_recipients_count", null, null, recipients.getCount());
+
+            // Queues
+            header("chatnova_pipeline_queued_messages", "gauge", "Messages waiting for a chat thread");
+            sample("chatnova_pipeline_queued_messages", null, null, plugin.getChatPipeline().getQueuedMessages());
+
+            MuteManager muteManager = plugin.getMuteManager();
+            header("chatnova_mute_lookups_queued", "gauge", "LiteBans lookups waiting for a lookup thread");
+            sample("chatnova_mute_lookups_queued", null, null, muteManager.getQueuedLookups());
+
+            // Caches
+            MessageManager messageManager = plugin.getMessageManager();
+            header("chatnova_cache_hits_total", "counter", "Cache lookups answered from the cache");
+            cacheSamples("chatnova_cache_hits_total", muteManager.getStats(), messageManager.getPrefixCache().getStats(),
+                    messageManager.getComponentCache().getStats(), true);
+            header("chatnova_cache_misses_total", "counter", "Cache lookups that had to load the value");
+            cacheSamples("chatnova_cache_misses_total", muteManager.getStats(), messageManager.getPrefixCache().getStats(),
+                    messageManager.getComponentCache().getStats(), false);
+
+            header("chatnova_cache_hit_ratio", "gauge", "Share of cache lookups that were hits since startup");
+            hitRatio("chatnova_cache_hit_ratio", "mute", muteManager.getStats());
+            hitRatio("chatnova_cache_hit_ratio", "prefix", messageManager.getPrefixCache().getStats());
+            hitRatio("chatnova_cache_hit_ratio", "header", messageManager.getComponentCache().getStats());
+
+            header("chatnova_cache_entries", "gauge", "Entries held by each cache");
+            sample("chatnova_cache_entries", "cache", "mute", muteManager.size());
+            sample("chatnova_cache_entries", "cache", "prefix", messageManager.getPrefixCache().size());
+            sample("chatnova_cache_entries", "cache", "header", messageManager.getComponentCache().size());
+
+            // Data sizes
+            header("chatnova_cooldowns", "gauge", "Stored cooldowns, including expired ones not swept yet");
+            sample("chatnova_cooldowns", null, null, plugin.getCooldownManager().size());
+
+            PlayerStateStore playerState = plugin.getPlayerState();
+            if (playerState != null) {
+                header("chatnova_hidden_players", "gauge", "Players who have hidden global chat");
+                sample("chatnova_hidden_players", null, null, playerState.getHiddenGlobalChat().size());
+                header("chatnova_blacklisted_players", "gauge", "Players blacklisted from global chat");
+                sample("chatnova_blacklisted_players", null, null, playerState.getBlacklistedPlayers().size());
+            }
+
+            header("chatnova_banned_words", "gauge", "Words in the banned word filter");
+            sample("chatnova_banned_words", null, null, plugin.getChatFilter().getMatcher().getWordCount());
+
+            header("chatnova_ready", "gauge", "Whether startup loading has finished");
+            sample("chatnova_ready", null, null, plugin.isReady() ? 1 : 0);
+        }
+
+        private void header(String name, String type, String help) {
+            text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+
+        private void cacheSamples(String name, CacheStats mute, CacheStats prefix, CacheStats header, boolean hits) {
+            sample(name, "cache", "mute", hits ? mute.getHits() : mute.getMisses());
+            sample(name, "cache", "prefix", hits ? prefix.getHits() : prefix.getMisses());
+            sample(name, "cache", "header", hits ? header.getHits() : header.getMisses());
+        }
+
+        /**
+         * Write the buckets, sum and count of a nanosecond histogram in seconds
+         */
+        private void histogram(String name, String label, String labelValue, Histogram histogram) {
+            for (int i = 0; i < BUCKET_NANOS.length; i++) {
+                bucket(name, label, labelValue, BUCKET_LABELS[i], histogram.getCountAtOrBelow(BUCKET_NANOS[i]));
+            }
+
+            // Every count comes from the same buckets, so +Inf and _count agree even while values are recorded
+            long count = histogram.getCountAtOrBelow(Long.MAX_VALUE);
+            bucket(name, label, labelValue, "+Inf", count);
+
+            text.append(name).append("_sum");
+            labels(label, labelValue);
+            text.append(' ');
+            fixed(histogram.getSum(), NANOS_DECIMALS);
+            text.append('\n');
+            text.append(name).append("_count");
+            labels(label, labelValue);
+            text.append(' ').append(count).append('\n');
+        }
+
+        private void bucket(String name, String label, String labelValue, String bound, long count) {
+            text.append(name).append("_bucket{");
+            if (label != null) {
+                text.append(label).append("=\"").append(labelValue).append("\",");
+            }
+            text.append("le=\"").append(bound).append("\"} ").append(count).append('\n');
+        }
+
+        private void sample(String name, String label, String labelValue, long value) {
+            text.append(name);
+            labels(label, labelValue);
+            text.append(' ').append(value).append('\n');
+        }
+
+        /**
+         * Write the share of cache lookups that were hits
+         */
+        private void hitRatio(String name, String cache, CacheStats stats) {
+            long hits = stats.getHits();
+            long total = hits + stats.getMisses();
+            text.append(name);
+            labels("cache", cache);
+            text.append(' ');
+            fixed(total > 0 ? hits * RATIO_SCALE / total : 0, RATIO_DECIMALS);
+            text.append('\n');
+        }
+
+        private void labels(String label, String labelValue) {
+            if (label != null) {
+                text.append('{').append(label).append("=\"").append(labelValue).append("\"}");
+            }
+        }
+
+        /**
+         * Write scaled / 10^decimals as a decimal number. Appending a double would allocate a
+         * String on every sample.
+         */
+        private void fixed(long scaled, int decimals) {
+            long unit = 1;
+            for (int i = 0; i < decimals; i++) {
+                unit *= 10;
+            }
+
+            text.append(scaled / unit).append('.');
+            long fraction = scaled % unit;
+            for (long digit = unit / 10; digit > 1 && digit > fraction; digit /= 10) {
+                text.append('0');
+            }
+            text.append(fraction);
+        }
+
+    }
+}
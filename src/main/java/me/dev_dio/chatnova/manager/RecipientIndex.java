@@ -0,0 +1,98 @@
+package me.dev_dio.chatnova.manager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.velocitypowered.api.proxy.Player;
+
+/**
+ * Keeps the set of players that should receive global chat, updated from join and quit
+ * instead of being filtered out of the full player list on every message. Who has hidden
+ * global chat is read from the {@link PlayerStateStore}, the only owner of that setting.
+ * Broadcasts read a prebuilt array tagged with the hidden set it was built from; a join or
+ * quit drops it, and a /gctoggle or reload publishes a new hidden set, so either way the
+ * next broadcast rebuilds it once and a burst of logins costs a single rebuild.
+ */
+public class RecipientIndex {
+    private static final Player[] NO_PLAYERS = new Player[0];
+
+    private final PlayerStateStore playerState;
+    private final Map<UUID, Player> online = new HashMap<>();
+    private volatile Recipients recipients = new Recipients(Set.of(), NO_PLAYERS);
+
+    /**
+     * The recipient array and the hidden player snapshot it was filtered with
+     */
+    private static final class Recipients {
+        private final Set<UUID> hidden;
+        private final Player[] players;
+
+        private Recipients(Set<UUID> hidden, Player[] players) {
+            this.hidden = hidden;
+            this.players = players;
+        }
+    }
+
+    public RecipientIndex(PlayerStateStore playerState) {
+        this.playerState = playerState;
+    }
+
+    /**
+     * Get the players that currently receive global chat. The array must not be modified.
+     */
+    public Player[] getRecipients() {
+        Recipients snapshot = recipients;
+        // Hidden sets are immutable snapshots, so a changed setting always means a new instance
+        if (snapshot != null && snapshot.hidden == playerState.getHiddenGlobalChat()) {
+            return snapshot.players;
+        }
+        return rebuild();
+    }
+
+    /**
+     * Replace the online players, e.g. when the plugin starts with players already connected
+     */
+    public synchronized void setOnlinePlayers(Collection<Player> players) {
+        online.clear();
+        for (Player player : players) {
+            online.put(player.getUniqueId(), player);
+        }
+        recipients = null;
+    }
+
+    public synchronized void addPlayer(Player player) {
+        online.put(player.getUniqueId(), player);
+        if (!playerState.isGlobalChatHidden(player.getUniqueId())) {
+            recipients = null;
+        }
+    }
+
+    public synchronized void removePlayer(UUID uuid) {
+        if (online.remove(uuid) != null && !playerState.isGlobalChatHidden(uuid)) {
+            recipients = null;
+        }
+    }
+
+    public synchronized int getOnlineCount() {
+        return online.size();
+    }
+
+    private synchronized Player[] rebuild() {
+        // Another broadcast may have rebuilt it while we waited for the lock
+        Set<UUID> hidden = playerState.getHiddenGlobalChat();
+        Recipients snapshot = recipients;
+        if (snapshot != null && snapshot.hidden == hidden) {
+            return snapshot.players;
+        }
+
+        Player[] players = online.values().stream()
+                .filter(player -> !hidden.contains(player.getUniqueId()))
+                .toArray(Player[]::new);
+        recipients = new Recipients(hidden, players);
+        return players;
+    }
+}
@@ -0,0 +1,43 @@
+package me.dev_dio.chatnova.pipeline;
+
+import com.velocitypowered.api.proxy.Player;
+
+import me.dev_dio.chatnova.jfr.ChatMessageEvent;
+import net.kyori.adventure.text.Component;
+
+/**
+ * State of a single /gc message as it moves through the pipeline stages
+ */
+public class ChatContext {
+    private final Player sender;
+    private final String serverName;
+    private final long submittedAt = System.nanoTime();
+    // null unless a flight recording has chat message events enabled
+    private final ChatMessageEvent event = ChatMessageEvent.start();
+    private String message;
+    private Component rendered;
+    private ChatStats.RejectReason rejectReason;
+    private int recipientCount;
+
+    public ChatContext(Player sender, String message) {
+        this.sender = sender;
+        this.message = message;
+        this.serverName = sender.getCurrentServer()
+                .map(connection -> connection.getServerInfo().getName())
+                .orElse("Unknown");
+    }
+
+    public Player getSender() { return sender; }
+    public String getServerName() { return serverName; }
+    public long getSubmittedAt() { return submittedAt; }
+    public ChatMessageEvent getEvent() { return event; }
+    public String getMessage() { return message; }
+    public Component getRendered() { return rendered; }
+    public ChatStats.RejectReason getRejectReason() { return rejectReason; }
+    public int getRecipientCount() { return recipientCount; }
+
+    public void setMessage(String message) { this.message = message; }
+    public void setRendered(Component rendered) { this.rendered = rendered; }
+    public void setRejectReason(ChatStats.RejectReason rejectReason) { this.rejectReason = rejectReason; }
+    public void setRecipientCount(int recipientCount) { this.recipientCount = recipientCount; }
+}
@@ -0,0 +1,79 @@
+package me.dev_dio.chatnova.pipeline;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor made of single-threaded lanes. Tasks submitted with the same key
+ * always run on the same lane, so messages from one player keep their order.
+ */
+final class ChatExecutor {
+    private final ThreadPoolExecutor[] lanes;
+
+    ChatExecutor(int threads, int queueCapacity) {
+        int laneCount = Math.max(1, threads);
+        int laneCapacity = Math.max(1, queueCapacity / laneCount);
+        AtomicInteger threadId = new AtomicInteger();
+
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(laneCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ChatNova-Chat-" + threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+        }
+    }
+
+    /**
+     * Queue a task on the lane owned by the given key
+     * @throws RejectedExecutionException if that lane's queue is full
+     */
+    void execute(UUID key, Runnable task) {
+        lanes[(key.hashCode() & Integer.MAX_VALUE) % lanes.length].execute(task);
+    }
+
+    /**
+     * Get the number of tasks waiting across all lanes
+     */
+    int getQueuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    /**
+     * Stop accepting tasks and wait for queued ones to finish
+     */
+    void shutdown(long timeoutMillis) {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            for (ThreadPoolExecutor lane : lanes) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || !lane.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                    lane.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (ThreadPoolExecutor lane : lanes) {
+                lane.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package me.dev_dio.chatnova.pipeline;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+
+import com.velocitypowered.api.proxy.Player;
+
+import me.dev_dio.chatnova.ChatNova;
+import me.dev_dio.chatnova.Constants;
+import me.dev_dio.chatnova.filter.ChatFilter;
+import me.dev_dio.chatnova.jfr.ChatMessageEvent;
+import me.dev_dio.chatnova.manager.ConfigSnapshot;
+import me.dev_dio.chatnova.manager.MessageManager;
+
+/**
+ * Processes /gc messages in explicit stages: access checks, moderation lookups, validate, filter, render and fan-out.
+ * Depending on config the stages run inline on the command thread or on a bounded {@link ChatExecutor}.
+ */
+public class ChatPipeline {
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    private final ChatNova plugin;
+    private final Logger logger;
+    private final ChatStats stats = new ChatStats();
+
+    // null when running inline
+    private volatile ChatExecutor executor;
+    private String executorSettings;
+    private volatile CompletionListener completionListener;
+
+    /**
+     * Notified when a message leaves the pipeline, whether it was broadcast or rejected
+     */
+    @FunctionalInterface
+    public interface CompletionListener {
+        void onComplete(ChatContext context, boolean accepted);
+    }
+
+    public ChatPipeline(ChatNova plugin, Logger logger) {
+        this.plugin = plugin;
+        this.logger = logger;
+    }
+
+    /**
+     * Apply the pipeline mode and executor sizing from config. They are only read once: swapping
+     * the executor while the old lanes still drain would let one player's messages run on both,
+     * so changes made on reload take effect on restart.
+     */
+    public synchronized void configure(ConfigSnapshot config) {
+        int threads = config.getPipelineThreads();
+        int queueSize = config.getPipelineQueueSize();
+        boolean async = config.isAsyncPipeline();
+        String settings = async ? threads + "/" + queueSize : Constants.PIPELINE_MODE_INLINE;
+        if (executorSettings != null) {
+            if (!settings.equals(executorSettings)) {
+                logger.warn("Global chat pipeline settings changed, restart the proxy to apply them");
+            }
+            return;
+        }
+
+        executor = async ? new ChatExecutor(threads, queueSize) : null;
+        executorSettings = settings;
+
+        if (async) {
+            logger.info("Global chat pipeline running async ({} threads, queue size {})", threads, queueSize);
+        } else {
+            logger.info("Global chat pipeline running inline");
+        }
+    }
+
+    /**
+     * Set the listener told about every processed message, or null for none
+     */
+    public void setCompletionListener(CompletionListener completionListener) {
+        this.completionListener = completionListener;
+    }
+
+    /**
+     * Submit a player's message to the pipeline
+     */
+    public void submit(Player player, String message) {
+        ChatContext context = new ChatContext(player, message);
+        ChatExecutor current = executor;
+
+        if (current == null) {
+            process(context);
+            return;
+        }
+
+        try {
+            current.execute(player.getUniqueId(), () -> process(context));
+        } catch (RejectedExecutionException e) {
+            plugin.getMessageManager().sendConfigMessage(player, Constants.Messages.QUEUE_FULL, Constants.Defaults.QUEUE_FULL_MSG);
+            context.setRejectReason(ChatStats.RejectReason.QUEUE_FULL);
+            complete(context, false);
+        }
+    }
+
+    /**
+     * Get the number of messages waiting to be processed
+     */
+    public int getQueuedMessages() {
+        ChatExecutor current = executor;
+        return current != null ? current.getQueuedTasks() : 0;
+    }
+
+    /**
+     * Get the latency and verdict statistics of processed messages
+     */
+    public ChatStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Stop the executor, letting already queued messages finish
+     */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+            executor = null;
+        }
+    }
+
+    private void process(ChatContext context) {
+        boolean accepted = false;
+        try {
+            accepted = runStages(context);
+        } catch (Exception e) {
+            context.setRejectReason(ChatStats.RejectReason.ERROR);
+            logger.error("Failed to process global chat message from " + context.getSender().getUsername(), e);
+        } finally {
+            complete(context, accepted);
+        }
+    }
+
+    /**
+     * Run every stage, timing each one after the access checks
+     * @return true if the message was broadcast
+     */
+    private boolean runStages(ChatContext context) {
+        if (!checkAccess(context)) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        boolean allowed = checkModeration(context);
+        recordStage(context, ChatStats.Stage.MUTE_LOOKUP, System.nanoTime() - start);
+        if (!allowed || !validate(context)) {
+            return false;
+        }
+
+        long filterStart = System.nanoTime();
+        allowed = applyFilters(context);
+        long renderStart = System.nanoTime();
+        recordStage(context, ChatStats.Stage.FILTER, renderStart - filterStart);
+        if (!allowed) {
+            return false;
+        }
+
+        render(context);
+        long fanOutStart = System.nanoTime();
+        recordStage(context, ChatStats.Stage.FORMAT, fanOutStart - renderStart);
+
+        fanOut(context);
+        recordStage(context, ChatStats.Stage.FAN_OUT, System.nanoTime() - fanOutStart);
+        return true;
+    }
+
+    private void complete(ChatContext context, boolean accepted) {
+        long nanos = System.nanoTime() - context.getSubmittedAt();
+        if (accepted) {
+            stats.recordAccepted(nanos, context.getRecipientCount());
+        } else {
+            ChatStats.RejectReason reason = context.getRejectReason();
+            stats.recordRejected(reason != null ? reason : ChatStats.RejectReason.ERROR, nanos);
+        }
+
+        ChatMessageEvent event = context.getEvent();
+        if (event != null) {
+            event.finish(context, accepted);
+        }
+
+        CompletionListener listener = completionListener;
+        if (listener != null) {
+            listener.onComplete(context, accepted);
+        }
+    }
+
+    /**
+     * Stage 1: permission and blacklist checks
+     */
+    private boolean checkAccess(ChatContext context) {
+        Player player = context.getSender();
+        MessageManager messageManager = plugin.getMessageManager();
+
+        // Permission check
+        if (!player.hasPermission(Constants.Permissions.GC_USE)) {
+            messageManager.sendConfigMessage(player, Constants.Messages.NO_PERMISSION, Constants.Defaults.NO_PERMISSION_MSG);
+            return reject(context, ChatStats.RejectReason.NO_PERMISSION);
+        }
+
+        // Blacklist check
+        if (plugin.isBlacklisted(player.getUsername())) {
+            messageManager.sendConfigMessage(player, Constants.Messages.BLACKLISTED, Constants.Defaults.BLACKLISTED_MSG);
+            return reject(context, ChatStats.RejectReason.BLACKLISTED);
+        }
+
+        return true;
+    }
+
+    /**
+     * Stage 2: external moderation lookups (LiteBans mute status)
+     */
+    private boolean checkModeration(ChatContext context) {
+        Player player = context.getSender();
+
+        if (plugin.isPlayerMuted(player.getUniqueId())) {
+            plugin.getMessageManager().sendConfigMessage(player, Constants.Messages.MUTED, Constants.Defaults.MUTED_MSG);
+            return reject(context, ChatStats.RejectReason.MUTED);
+        }
+
+        return true;
+    }
+
+    /**
+     * Stage 3: global mute, usage and cooldown checks
+     */
+    private boolean validate(ChatContext context) {
+        Player player = context.getSender();
+        MessageManager messageManager = plugin.getMessageManager();
+
+        // Global mute check
+        if (plugin.isGlobalChatMuted() && !player.hasPermission(Constants.Permissions.GC_BYPASS_MUTE)) {
+            messageManager.sendConfigMessage(player, Constants.Messages.GLOBAL_MUTED, Constants.Defaults.GLOBAL_MUTED_MSG);
+            return reject(context, ChatStats.RejectReason.GLOBAL_MUTE);
+        }
+
+        if (context.getMessage().isEmpty()) {
+            messageManager.sendConfigMessage(player, Constants.Messages.USAGE, Constants.Defaults.USAGE_MSG);
+            return reject(context, ChatStats.RejectReason.USAGE);
+        }
+
+        // Cooldown check, a single lookup gives both the verdict and the remaining time
+        long start = System.nanoTime();
+        long remainingMillis = plugin.getCooldownManager().getRemainingMillis(player.getUniqueId());
+        recordStage(context, ChatStats.Stage.COOLDOWN, System.nanoTime() - start);
+        if (remainingMillis > 0 && !player.hasPermission(Constants.Permissions.GC_BYPASS_COOLDOWN)) {
+            String cooldownMessage = messageManager.getFormattedMessage(
+                    Constants.Messages.COOLDOWN,
+                    Constants.Defaults.COOLDOWN_MSG,
+                    "{time}", String.valueOf(remainingMillis / 1000)
+            );
+            messageManager.sendMessage(player, cooldownMessage);
+            return reject(context, ChatStats.RejectReason.COOLDOWN);
+        }
+
+        return true;
+    }
+
+    /**
+     * Stage 4: length, banned word and URL filters
+     */
+    private boolean applyFilters(ChatContext context) {
+        Player player = context.getSender();
+        String message = context.getMessage();
+        ChatFilter chatFilter = plugin.getChatFilter();
+        MessageManager messageManager = plugin.getMessageManager();
+
+        ChatFilter.FilterResult result = chatFilter.filterMessage(message);
+
+        // Message length check
+        if (result.exceedsMaxLength()) {
+            String lengthMessage = messageManager.getFormattedMessage(
+                    Constants.Messages.MESSAGE_TOO_LONG,
+                    Constants.Defaults.MESSAGE_TOO_LONG_MSG,
+                    "{max}", String.valueOf(chatFilter.getMaxMessageLength())
+            );
+            messageManager.sendMessage(player, lengthMessage);
+            return reject(context, ChatStats.RejectReason.TOO_LONG);
+        }
+
+        // Banned words check, either censoring them or rejecting the message
+        if (result.hasBannedWords()) {
+            if (!plugin.getConfigManager().getSnapshot().isCensorBannedWords()) {
+                messageManager.sendConfigMessage(player, Constants.Messages.BANNED_WORDS, Constants.Defaults.BANNED_WORDS_MSG);
+                return reject(context, ChatStats.RejectReason.BANNED_WORDS);
+            }
+            context.setMessage(result.getCensoredMessage());
+        }
+
+        // URL check
+        if (result.hasUrls() && !player.hasPermission(Constants.Permissions.GC_BYPASS_URL)) {
+            messageManager.sendConfigMessage(player, Constants.Messages.NO_URLS, Constants.Defaults.NO_URLS_MSG);
+            return reject(context, ChatStats.RejectReason.URL);
+        }
+
+        return true;
+    }
+
+    /**
+     * Stage 5: build the final component from the server format
+     */
+    private void render(ChatContext context) {
+        context.setRendered(plugin.getMessageManager().renderGlobalMessage(
+                context.getSender(), context.getServerName(), context.getMessage()));
+    }
+
+    /**
+     * Stage 6: deliver to every eligible player, log and start the sender's cooldown
+     */
+    private void fanOut(ChatContext context) {
+        MessageManager messageManager = plugin.getMessageManager();
+        Player player = context.getSender();
+
+        context.setRecipientCount(messageManager.broadcast(context.getRendered()));
+        messageManager.logGlobalMessage(player, context.getServerName(), context.getMessage());
+        plugin.setCooldown(player);
+    }
+
+    private void recordStage(ChatContext context, ChatStats.Stage stage, long nanos) {
+        stats.recordStage(stage, nanos);
+        ChatMessageEvent event = context.getEvent();
+        if (event != null) {
+            event.setStageDuration(stage, nanos);
+        }
+    }
+
+    private static boolean reject(ChatContext context, ChatStats.RejectReason reason) {
+        context.setRejectReason(reason);
+        return false;
+    }
+}
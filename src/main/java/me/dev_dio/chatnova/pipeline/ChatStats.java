@@ -0,0 +1,208 @@
+package me.dev_dio.chatnova.pipeline;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import me.dev_dio.chatnova.util.Histogram;
+
+/**
+ * Live statistics of the /gc pipeline: latency per stage, accepted and rejected messages by
+ * reason and the number of recipients per broadcast. Everything is recorded lock-free from
+ * the chat threads and read by /gcstats. A second set of counters covers only the time since
+ * bStats last sampled it, and is reset by each sample rather than by /gcstats.
+ */
+public class ChatStats {
+    // Packed fan-out counter: recipients in the low 40 bits, broadcasts in the upper 24. Both are
+    // far beyond what one bStats interval sees.
+    private static final int RECIPIENT_BITS = 40;
+    private static final long RECIPIENT_MASK = (1L << RECIPIENT_BITS) - 1;
+    private static final long ONE_BROADCAST = 1L << RECIPIENT_BITS;
+
+    /**
+     * Timed steps of a message, in pipeline order
+     */
+    public enum Stage {
+        MUTE_LOOKUP("mute lookup"),
+        COOLDOWN("cooldown"),
+        FILTER("filter"),
+        FORMAT("format"),
+        FAN_OUT("fan-out");
+
+        private final String displayName;
+
+        Stage(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() { return displayName; }
+    }
+
+    /**
+     * Why a message was not broadcast
+     */
+    public enum RejectReason {
+        NO_PERMISSION("no-permission"),
+        BLACKLISTED("blacklisted"),
+        GLOBAL_MUTE("global-mute"),
+        USAGE("usage"),
+        COOLDOWN("cooldown"),
+        MUTED("muted"),
+        TOO_LONG("too-long"),
+        BANNED_WORDS("banned-words"),
+        URL("url"),
+        QUEUE_FULL("queue-full"),
+        ERROR("error");
+
+        private final String displayName;
+
+        RejectReason(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() { return displayName; }
+    }
+
+    private final Histogram[] stages = new Histogram[Stage.values().length];
+    private final Histogram total = new Histogram();
+    private final Histogram recipients = new Histogram();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder[] rejected = new LongAdder[RejectReason.values().length];
+    private volatile long lastRecipients;
+    private volatile long startedAt = System.currentTimeMillis();
+
+    // Since the last bStats sample
+    private final LongAdder intervalAccepted = new LongAdder();
+    // Broadcasts and their recipients in one value, so a sample reads and resets both at once
+    private final AtomicLong intervalFanOut = new AtomicLong();
+    private final LongAdder[] intervalRejected = new LongAdder[RejectReason.values().length];
+
+    public ChatStats() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new Histogram();
+        }
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+            intervalRejected[i] = new LongAdder();
+        }
+    }
+
+    public void recordStage(Stage stage, long nanos) {
+        stages[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Record a broadcast message
+     * @param nanos Time from submission until the message was delivered
+     */
+    public void recordAccepted(long nanos, int recipientCount) {
+        accepted.increment();
+        total.record(nanos);
+        recipients.record(recipientCount);
+        lastRecipients = recipientCount;
+
+        intervalAccepted.increment();
+        intervalFanOut.getAndAdd(ONE_BROADCAST + recipientCount);
+    }
+
+    /**
+     * Record a message that was not broadcast
+     * @param nanos Time from submission until the message was rejected
+     */
+    public void recordRejected(RejectReason reason, long nanos) {
+        rejected[reason.ordinal()].increment();
+        intervalRejected[reason.ordinal()].increment();
+        total.record(nanos);
+    }
+
+    public Histogram getStage(Stage stage) {
+        return stages[stage.ordinal()];
+    }
+
+    /**
+     * Get the end-to-end latency of accepted and rejected messages
+     */
+    public Histogram getTotal() {
+        return total;
+    }
+
+    public Histogram getRecipients() {
+        return recipients;
+    }
+
+    public long getLastRecipients() {
+        return lastRecipients;
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected(RejectReason reason) {
+        return rejected[reason.ordinal()].sum();
+    }
+
+    public long getRejected() {
+        long sum = 0;
+        for (LongAdder counter : rejected) {
+            sum += counter.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Get when recording started, or the last reset
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Get the messages accepted since the previous call, and start counting from zero
+     */
+    public long sampleAccepted() {
+        return intervalAccepted.sumThenReset();
+    }
+
+    /**
+     * Get the average recipients per broadcast since the previous call, and start over
+     * @return The average, or 0 if nothing was broadcast
+     */
+    public double sampleAverageRecipients() {
+        long fanOut = intervalFanOut.getAndSet(0);
+        long broadcasts = fanOut >>> RECIPIENT_BITS;
+        long recipientSum = fanOut & RECIPIENT_MASK;
+        return broadcasts > 0 ? (double) recipientSum / broadcasts : 0;
+    }
+
+    /**
+     * Get the rejections by reason since the previous call, and start counting from zero
+     * @return Count per reason name, including reasons with no rejections
+     */
+    public Map<String, Integer> sampleRejected() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (RejectReason reason : RejectReason.values()) {
+            counts.put(reason.getDisplayName(), (int) intervalRejected[reason.ordinal()].sumThenReset());
+        }
+        return counts;
+    }
+
+    /**
+     * Clear every counter and histogram, e.g. to measure after a config change. The bStats
+     * counters are left alone.
+     */
+    public void reset() {
+        for (Histogram stage : stages) {
+            stage.reset();
+        }
+        total.reset();
+        recipients.reset();
+        accepted.reset();
+        for (LongAdder counter : rejected) {
+            counter.reset();
+        }
+        lastRecipients = 0;
+        startedAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,220 @@
+package me.dev_dio.chatnova.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+import me.dev_dio.chatnova.jfr.StorageFlushEvent;
+
+/**
+ * Append-only log of additions and removals for one YAML-backed set, e.g. blacklist.yml.
+ * Each change is one line ({@code +value} or {@code -value}) in {@code <file>.journal}.
+ * Appends are buffered and synced in batches by the {@link JournalStore}; once the journal
+ * grows past a threshold it is folded into a fresh YAML snapshot.
+ * <p>
+ * Callers must append while holding the state lock passed in, in the same order the changes
+ * were applied, so a snapshot taken under that lock always matches the journal position.
+ */
+public class Journal {
+    private static final char ADD = '+';
+    private static final char REMOVE = '-';
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path compactingPath;
+    private final Object stateLock;
+    private final Supplier<Map<String, Object>> snapshot;
+    private final Logger logger;
+    private final Yaml yaml = new Yaml();
+
+    private final StringBuilder buffer = new StringBuilder();
+    private FileChannel channel;
+    private long size;
+
+    /**
+     * A single journaled change
+     */
+    public static class Record {
+        private final boolean add;
+        private final String value;
+
+        Record(boolean add, String value) {
+            this.add = add;
+            this.value = value;
+        }
+
+        public boolean isAdd() { return add; }
+        public String getValue() { return value; }
+    }
+
+    /**
+     * @param snapshotPath The YAML file the journal belongs to
+     * @param stateLock The lock held while the journaled state changes
+     * @param snapshot Supplies the full current state, called under the state lock
+     */
+    public Journal(Path snapshotPath, Object stateLock, Supplier<Map<String, Object>> snapshot, Logger logger) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal");
+        this.compactingPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal.old");
+        this.stateLock = stateLock;
+        this.snapshot = snapshot;
+        this.logger = logger;
+    }
+
+    /**
+     * Read every change recorded since the last snapshot, oldest first. A torn last line
+     * from a crash mid-append is skipped.
+     */
+    public synchronized List<Record> replay() throws IOException {
+        if (channel != null) {
+            sync();
+        }
+
+        List<Record> records = new ArrayList<>();
+        // A journal that was being compacted when the proxy stopped comes first
+        readRecords(compactingPath, records);
+        readRecords(journalPath, records);
+        return records;
+    }
+
+    /**
+     * Record a change. The caller must hold the state lock.
+     */
+    public synchronized void append(boolean add, String value) {
+        buffer.append(add ? ADD : REMOVE).append(value).append('\n');
+    }
+
+    /**
+     * Delete the journal files, e.g. after their changes were saved to YAML
+     */
+    public synchronized void discard() throws IOException {
+        Files.deleteIfExists(compactingPath);
+        Files.deleteIfExists(journalPath);
+    }
+
+    /**
+     * Open the journal for appending. Any earlier records must have been folded into the
+     * snapshot and discarded first.
+     */
+    synchronized void open() throws IOException {
+        channel = openChannel();
+        size = Files.size(journalPath);
+    }
+
+    /**
+     * Write buffered records and force them to disk. The buffer is only cleared once the whole
+     * batch is on disk; if writing fails, the records stay buffered for the next sync and any
+     * part of the batch that reached the file is cut off again.
+     */
+    synchronized void sync() throws IOException {
+        if (channel == null || buffer.length() == 0) {
+            return;
+        }
+
+        StorageFlushEvent event = StorageFlushEvent.start();
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(buffer.toString());
+        try {
+            // A partial batch left behind by an earlier failed sync must not end up mid-journal
+            if (channel.size() != size) {
+                channel.truncate(size);
+            }
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            try {
+                channel.truncate(size);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+
+        size += bytes.limit();
+        buffer.setLength(0);
+        event.finish(StorageFlushEvent.BACKEND_JOURNAL, journalPath.getFileName().toString(), bytes.limit());
+    }
+
+    /**
+     * Fold the journal into a new snapshot once it has grown past the threshold
+     */
+    void compactIfNeeded(long thresholdBytes) throws IOException {
+        Map<String, Object> data;
+        synchronized (stateLock) {
+            synchronized (this) {
+                if (channel == null || size + buffer.length() < thresholdBytes) {
+                    return;
+                }
+
+                // Rotate under both locks: everything before the rotation is in the snapshot we take.
+                // If an earlier compaction failed, keep its file and only retry the snapshot.
+                sync();
+                if (!Files.exists(compactingPath)) {
+                    channel.close();
+                    move(journalPath, compactingPath);
+                    channel = openChannel();
+                    size = 0;
+                }
+                data = snapshot.get();
+            }
+        }
+
+        // Writing the snapshot can take a while, appends go to the new journal meanwhile
+        long start = System.currentTimeMillis();
+        YamlFiles.writeAtomically(yaml, snapshotPath, data);
+        Files.deleteIfExists(compactingPath);
+        logger.info("Compacted {} in {}ms", journalPath.getFileName(), System.currentTimeMillis() - start);
+    }
+
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            sync();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void readRecords(Path path, List<Record> records) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        // Only complete lines count, anything after the last newline is a torn append
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+            String line = content.substring(start, end);
+            start = end + 1;
+
+            if (line.length() > 1 && (line.charAt(0) == ADD || line.charAt(0) == REMOVE)) {
+                records.add(new Record(line.charAt(0) == ADD, line.substring(1)));
+            }
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
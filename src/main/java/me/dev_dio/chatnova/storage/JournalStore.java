@@ -0,0 +1,73 @@
+package me.dev_dio.chatnova.storage;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+/**
+ * Owns the journals used in journal storage mode. A single background thread syncs every
+ * journal in one batch per interval, so many changes share one fsync, and compacts journals
+ * that have grown past the size threshold.
+ */
+public class JournalStore {
+    private final Logger logger;
+    private final long compactThreshold;
+    private final List<Journal> journals = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor;
+
+    public JournalStore(Logger logger, long syncIntervalMillis, long compactThreshold) {
+        this.logger = logger;
+        this.compactThreshold = compactThreshold;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ChatNova-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, syncIntervalMillis);
+        executor.scheduleWithFixedDelay(this::syncAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start appending to a journal after its changes have been replayed
+     */
+    public void start(Journal journal) throws IOException {
+        journal.open();
+        journals.add(journal);
+    }
+
+    /**
+     * Sync and close every journal
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Journal journal : journals) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.error("Failed to close journal", e);
+            }
+        }
+    }
+
+    private void syncAll() {
+        for (Journal journal : journals) {
+            try {
+                journal.sync();
+                journal.compactIfNeeded(compactThreshold);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write journal", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package me.dev_dio.chatnova.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+import me.dev_dio.chatnova.Constants;
+import me.dev_dio.chatnova.jfr.StorageFlushEvent;
+
+/**
+ * Embedded H2 database storage. Blacklisted names and per-player settings are rows keyed by
+ * name and UUID, so a change writes one row instead of a whole file, and player settings are
+ * read with a primary key lookup when the player joins instead of being held for everyone.
+ * Writes run in order on a single background thread. The banned word list stays in
+ * banned-words.yml since it is edited by hand.
+ */
+public class SqlStorage implements StorageBackend {
+    private static final String DATABASE_FILE = "chatnova";
+    private static final String YAML_IMPORTED = "yaml-imported";
+
+    private final Path dataDirectory;
+    private final Logger logger;
+    private final ExecutorService executor;
+    private final Yaml yaml = new Yaml();
+
+    // Guarded by this
+    private Connection connection;
+
+    public SqlStorage(Path dataDirectory, Logger logger) {
+        this.dataDirectory = dataDirectory;
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ChatNova-Storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public synchronized void open() throws IOException {
+        String url = "jdbc:h2:file:" + dataDirectory.resolve(DATABASE_FILE).toAbsolutePath();
+        try {
+            // Use the driver directly, DriverManager doesn't see drivers in plugin class loaders
+            connection = new org.h2.Driver().connect(url, new Properties());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS blacklist (name VARCHAR(64) PRIMARY KEY)");
+                statement.execute("CREATE TABLE IF NOT EXISTS player_settings ("
+                        + "uuid UUID PRIMARY KEY, global_chat_hidden BOOLEAN NOT NULL DEFAULT FALSE)");
+                statement.execute("CREATE TABLE IF NOT EXISTS chatnova_meta ("
+                        + "meta_key VARCHAR(64) PRIMARY KEY, meta_value VARCHAR(255))");
+            }
+            importYaml();
+        } catch (SQLException e) {
+            throw new IOException("Failed to open database " + url, e);
+        }
+    }
+
+    @Override
+    public synchronized Set<String> loadBlacklist() throws IOException {
+        Set<String> names = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT name FROM blacklist")) {
+            while (result.next()) {
+                names.add(result.getString(1));
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to load blacklist", e);
+        }
+        return names;
+    }
+
+    @Override
+    public synchronized Set<UUID> loadHiddenGlobalChat(Collection<UUID> onlinePlayers) throws IOException {
+        Set<UUID> hidden = new HashSet<>();
+        for (UUID playerUuid : onlinePlayers) {
+            if (loadGlobalChatHidden(playerUuid)) {
+                hidden.add(playerUuid);
+            }
+        }
+        return hidden;
+    }
+
+    @Override
+    public synchronized List<String> loadBannedWords() throws IOException {
+        List<String> words = YamlFiles.loadList(yaml, dataDirectory.resolve(Constants.BANNED_WORDS_FILE),
+                Constants.YamlKeys.BANNED_WORDS);
+        return words != null ? words : List.of();
+    }
+
+    @Override
+    public boolean isPlayerDataLazy() {
+        return true;
+    }
+
+    @Override
+    public synchronized boolean loadGlobalChatHidden(UUID playerUuid) throws IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT global_chat_hidden FROM player_settings WHERE uuid = ?")) {
+            statement.setObject(1, playerUuid);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to load settings of " + playerUuid, e);
+        }
+    }
+
+    @Override
+    public void setBlacklisted(String playerName, boolean blacklisted) {
+        String name = playerName.toLowerCase();
+        write(blacklisted ? "MERGE INTO blacklist (name) KEY (name) VALUES (?)" : "DELETE FROM blacklist WHERE name = ?",
+                statement -> statement.setString(1, name));
+    }
+
+    @Override
+    public void setGlobalChatHidden(UUID playerUuid, boolean hidden) {
+        write("MERGE INTO player_settings (uuid, global_chat_hidden) KEY (uuid) VALUES (?, ?)", statement -> {
+            statement.setObject(1, playerUuid);
+            statement.setBoolean(2, hidden);
+        });
+    }
+
+    @Override
+    public boolean isOwnWrite(Path file) {
+        // Only banned-words.yml is read from a file, and only created by us when it was missing
+        return YamlFiles.isUnchangedSinceWrite(file);
+    }
+
+    @Override
+    public void flush() {
+        try {
+            executor.submit(() -> {}).get();
+        } catch (RejectedExecutionException e) {
+            // Already closed, nothing can be pending
+        } catch (ExecutionException e) {
+            logger.error("Failed to flush database writes", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Timed out waiting for database writes to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.error("Failed to close database", e);
+            }
+            connection = null;
+        }
+    }
+
+    /**
+     * Copy blacklist.yml and hidden_gc.yml into the database the first time it is opened
+     */
+    private void importYaml() throws SQLException, IOException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT meta_value FROM chatnova_meta WHERE meta_key = ?")) {
+            statement.setString(1, YAML_IMPORTED);
+            try (ResultSet result = statement.executeQuery()) {
+                if (result.next()) {
+                    return;
+                }
+            }
+        }
+
+        List<String> names = YamlFiles.loadList(yaml, dataDirectory.resolve(Constants.BLACKLIST_FILE),
+                Constants.YamlKeys.BLACKLISTED_PLAYERS);
+        List<String> hidden = YamlFiles.loadList(yaml, dataDirectory.resolve(Constants.HIDDEN_GC_FILE),
+                Constants.YamlKeys.HIDDEN_PLAYERS);
+
+        // One transaction, so a failed import is retried in full on the next start
+        connection.setAutoCommit(false);
+        try {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "MERGE INTO blacklist (name) KEY (name) VALUES (?)")) {
+                for (String name : names != null ? names : List.<String>of()) {
+                    statement.setString(1, name.toLowerCase());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "MERGE INTO player_settings (uuid, global_chat_hidden) KEY (uuid) VALUES (?, TRUE)")) {
+                for (String uuid : hidden != null ? hidden : List.<String>of()) {
+                    statement.setObject(1, UUID.fromString(uuid));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO chatnova_meta (meta_key, meta_value) VALUES (?, ?)")) {
+                statement.setString(1, YAML_IMPORTED);
+                statement.setString(2, String.valueOf(System.currentTimeMillis()));
+                statement.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+
+        logger.info("Imported {} blacklisted players and {} hidden global chat players into the database",
+                names != null ? names.size() : 0, hidden != null ? hidden.size() : 0);
+    }
+
+    private void write(String sql, StatementBinder binder) {
+        try {
+            executor.execute(() -> {
+                synchronized (this) {
+                    if (connection == null) {
+                        return;
+                    }
+                    StorageFlushEvent event = StorageFlushEvent.start();
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        binder.bind(statement);
+                        statement.executeUpdate();
+                        event.finish(StorageFlushEvent.BACKEND_H2, sql, 0);
+                    } catch (SQLException e) {
+                        logger.error("Failed to write to database", e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Dropped a database write after storage was closed");
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
@@ -0,0 +1,89 @@
+package me.dev_dio.chatnova.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import me.dev_dio.chatnova.manager.ConfigSnapshot;
+
+/**
+ * Where ChatNova keeps its persistent data: the blacklist, per-player settings such as hidden
+ * global chat, and the banned word list. Writes are called while the player state lock is held,
+ * in the order the changes were made, and must not block on I/O.
+ */
+public interface StorageBackend {
+    /**
+     * Prepare the backend, e.g. create files or tables. Called once at startup.
+     */
+    void open() throws IOException;
+
+    /**
+     * Apply settings after a config reload
+     */
+    default void configure(ConfigSnapshot config) {}
+
+    /**
+     * Load every blacklisted player name, lowercase
+     */
+    Set<String> loadBlacklist() throws IOException;
+
+    /**
+     * Load the players that have hidden global chat
+     * @param onlinePlayers Players currently online; backends that load player data lazily
+     *                      only return entries for these
+     */
+    Set<UUID> loadHiddenGlobalChat(Collection<UUID> onlinePlayers) throws IOException;
+
+    /**
+     * Load the banned word list
+     */
+    List<String> loadBannedWords() throws IOException;
+
+    /**
+     * Whether per-player data is only loaded for online players. Such backends are asked
+     * for a player's settings with {@link #loadGlobalChatHidden(UUID)} when they log in.
+     */
+    default boolean isPlayerDataLazy() {
+        return false;
+    }
+
+    /**
+     * Read a single player's hidden global chat setting
+     */
+    default boolean loadGlobalChatHidden(UUID playerUuid) throws IOException {
+        return loadHiddenGlobalChat(Set.of(playerUuid)).contains(playerUuid);
+    }
+
+    void setBlacklisted(String playerName, boolean blacklisted);
+
+    void setGlobalChatHidden(UUID playerUuid, boolean hidden);
+
+    /**
+     * Whether the data may be read back while the proxy is running, e.g. on /gcreload.
+     * If false, the in-memory state is authoritative until restart.
+     */
+    default boolean supportsReload() {
+        return true;
+    }
+
+    /**
+     * Whether a file in the data directory was last written by this backend rather than edited
+     * by hand, so reloading it would only read back what is already in memory
+     */
+    default boolean isOwnWrite(Path file) {
+        return false;
+    }
+
+    /**
+     * Make every write so far visible to the load methods
+     */
+    void flush();
+
+    /**
+     * Write everything still pending and release resources
+     */
+    void close();
+}
@@ -0,0 +1,111 @@
+package me.dev_dio.chatnova.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Saves YAML data files in the background. Save requests for the same file are coalesced
+ * for a short delay, and the data is captured when the write actually happens, so a burst of
+ * changes costs one write of the latest state. Files are written to a temporary sibling and
+ * then moved over the original, so a crash never leaves a half-written file behind.
+ */
+public class WriteBehindWriter {
+    private final Logger logger;
+    private final ScheduledExecutorService executor;
+    private final Map<Path, Supplier<Map<String, Object>>> pending = new ConcurrentHashMap<>();
+
+    // Guarded by the lock in write(), SnakeYAML instances are not thread-safe
+    private final Yaml yaml = new Yaml();
+
+    private volatile long delayMillis;
+
+    public WriteBehindWriter(Logger logger, long delayMillis) {
+        this.logger = logger;
+        this.delayMillis = delayMillis;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ChatNova-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // shutdown() writes pending files itself instead of waiting out their delay
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = executor;
+    }
+
+    /**
+     * Change how long save requests are coalesced
+     */
+    public void setDelay(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Request a save of a file
+     * @param path The file to write
+     * @param data Supplies the data to write, called on the writer thread when the save runs
+     */
+    public void save(Path path, Supplier<Map<String, Object>> data) {
+        // Only the first request schedules a write, later ones just replace the supplier
+        if (pending.put(path, data) != null) {
+            return;
+        }
+
+        try {
+            executor.schedule(() -> write(path), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down, write right away so the change isn't lost
+            write(path);
+        }
+    }
+
+    /**
+     * Write every pending file right away on the calling thread
+     */
+    public void flush() {
+        for (Path path : pending.keySet()) {
+            write(path);
+        }
+    }
+
+    /**
+     * Stop the writer thread and write everything that is still pending
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Timed out waiting for the data writer to finish");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        // Delayed writes are dropped on shutdown, so flush them here
+        flush();
+    }
+
+    private synchronized void write(Path path) {
+        Supplier<Map<String, Object>> data = pending.remove(path);
+        if (data == null) {
+            return;
+        }
+
+        try {
+            YamlFiles.writeAtomically(yaml, path, data.get());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to save " + path.getFileName(), e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package me.dev_dio.chatnova.storage;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.yaml.snakeyaml.Yaml;
+
+import me.dev_dio.chatnova.jfr.StorageFlushEvent;
+
+/**
+ * Crash-safe YAML file reading and writing shared by the storage classes
+ */
+final class YamlFiles {
+    // Modification time of each file right after it was last written here
+    private static final Map<Path, FileTime> lastWrites = new ConcurrentHashMap<>();
+
+    private YamlFiles() {}
+
+    /**
+     * Check whether a file is still exactly as it was last written by ChatNova, so file
+     * watchers can tell our own saves apart from edits made by hand
+     */
+    static boolean isUnchangedSinceWrite(Path path) {
+        FileTime written = lastWrites.get(path.toAbsolutePath());
+        try {
+            return written != null && written.equals(Files.getLastModifiedTime(path));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Load a YAML file, creating it with default content first if it doesn't exist
+     * @return The root map, or null if the file is empty
+     */
+    static Map<String, Object> load(Yaml yaml, Path path, String defaultContent) throws IOException {
+        if (!Files.exists(path)) {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, defaultContent, StandardCharsets.UTF_8);
+            recordWrite(path);
+        }
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return yaml.load(reader);
+        }
+    }
+
+    /**
+     * Load a list of strings stored under a single key, e.g. {@code banned-words: [...]}
+     * @return The list, or null if the file has no such key
+     */
+    static List<String> loadList(Yaml yaml, Path path, String key) throws IOException {
+        Map<String, Object> data = load(yaml, path, key + ": []");
+        if (data == null || !(data.get(key) instanceof List)) {
+            return null;
+        }
+
+        List<String> values = new ArrayList<>();
+        for (Object value : (List<?>) data.get(key)) {
+            if (value != null) {
+                values.add(value.toString());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Write a list of strings under a single key
+     */
+    static void writeList(Yaml yaml, Path path, String key, Collection<String> values) throws IOException {
+        Map<String, Object> data = new HashMap<>();
+        data.put(key, new ArrayList<>(values));
+        writeAtomically(yaml, path, data);
+    }
+
+    /**
+     * Write data to a temporary sibling, sync it and move it over the target, so readers and
+     * crashes only ever see the old or the new file
+     */
+    static void writeAtomically(Yaml yaml, Path target, Object data) throws IOException {
+        StorageFlushEvent event = StorageFlushEvent.start();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long bytes;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            yaml.dump(data, writer);
+            writer.flush();
+            channel.force(true);
+            bytes = channel.size();
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        recordWrite(target);
+        event.finish(StorageFlushEvent.BACKEND_YAML, target.getFileName().toString(), bytes);
+    }
+
+    private static void recordWrite(Path path) throws IOException {
+        lastWrites.put(path.toAbsolutePath(), Files.getLastModifiedTime(path));
+    }
+}
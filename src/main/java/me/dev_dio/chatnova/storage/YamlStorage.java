@@ -0,0 +1,202 @@
+package me.dev_dio.chatnova.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.yaml.snakeyaml.Yaml;
+
+import me.dev_dio.chatnova.Constants;
+import me.dev_dio.chatnova.manager.ConfigSnapshot;
+import me.dev_dio.chatnova.manager.PlayerStateStore;
+
+/**
+ * Default storage: one YAML file per data set in the plugin folder. Changes are either saved
+ * by rewriting the file in the background ({@link WriteBehindWriter}) or, in journal mode,
+ * appended to a {@link Journal} that is folded into the file from time to time.
+ */
+public class YamlStorage implements StorageBackend {
+    private final Logger logger;
+    private final PlayerStateStore playerState;
+    private final Path blacklistPath;
+    private final Path hiddenGlobalChatPath;
+    private final Path bannedWordsPath;
+    private final WriteBehindWriter writer;
+    private final Journal blacklistJournal;
+    private final Journal hiddenGlobalChatJournal;
+    private final boolean journalMode;
+    // Only used by open(), the loads run in parallel at startup and each use their own parser
+    private final Yaml yaml = new Yaml();
+
+    private JournalStore journalStore;
+
+    public YamlStorage(Path dataDirectory, Logger logger, PlayerStateStore playerState, ConfigSnapshot config) {
+        this.logger = logger;
+        this.playerState = playerState;
+        this.blacklistPath = dataDirectory.resolve(Constants.BLACKLIST_FILE);
+        this.hiddenGlobalChatPath = dataDirectory.resolve(Constants.HIDDEN_GC_FILE);
+        this.bannedWordsPath = dataDirectory.resolve(Constants.BANNED_WORDS_FILE);
+        this.writer = new WriteBehindWriter(logger, config.getStorageSaveDelay());
+        this.blacklistJournal = new Journal(blacklistPath, playerState, this::getBlacklistData, logger);
+        this.hiddenGlobalChatJournal = new Journal(hiddenGlobalChatPath, playerState, this::getHiddenGlobalChatData, logger);
+        this.journalMode = config.isJournalStorage();
+        this.journalStore = journalMode
+                ? new JournalStore(logger, config.getJournalSyncInterval(), config.getJournalCompactSize())
+                : null;
+    }
+
+    @Override
+    public void open() throws IOException {
+        // Journals may be left over from journal mode or a crash, fold them in before anything is read
+        try {
+            recover(blacklistPath, Constants.YamlKeys.BLACKLISTED_PLAYERS, blacklistJournal);
+            recover(hiddenGlobalChatPath, Constants.YamlKeys.HIDDEN_PLAYERS, hiddenGlobalChatJournal);
+        } catch (IOException | RuntimeException e) {
+            // The journals were never opened, appending to them would lose every change
+            disableJournals();
+            throw e;
+        }
+
+        if (journalStore != null) {
+            try {
+                journalStore.start(blacklistJournal);
+                journalStore.start(hiddenGlobalChatJournal);
+                logger.info("Using journal storage for blacklist and hidden global chat data");
+            } catch (IOException e) {
+                logger.error("Failed to open journals, falling back to YAML saves", e);
+                disableJournals();
+            }
+        }
+    }
+
+    @Override
+    public void configure(ConfigSnapshot config) {
+        writer.setDelay(config.getStorageSaveDelay());
+    }
+
+    @Override
+    public Set<String> loadBlacklist() throws IOException {
+        List<String> names = YamlFiles.loadList(new Yaml(), blacklistPath, Constants.YamlKeys.BLACKLISTED_PLAYERS);
+        if (names == null) {
+            return Set.of();
+        }
+        return names.stream().map(String::toLowerCase).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<UUID> loadHiddenGlobalChat(Collection<UUID> onlinePlayers) throws IOException {
+        List<String> uuids = YamlFiles.loadList(new Yaml(), hiddenGlobalChatPath, Constants.YamlKeys.HIDDEN_PLAYERS);
+        if (uuids == null) {
+            return Set.of();
+        }
+        return uuids.stream().map(UUID::fromString).collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<String> loadBannedWords() throws IOException {
+        List<String> words = YamlFiles.loadList(new Yaml(), bannedWordsPath, Constants.YamlKeys.BANNED_WORDS);
+        return words != null ? words : List.of();
+    }
+
+    @Override
+    public void setBlacklisted(String playerName, boolean blacklisted) {
+        if (journalStore != null) {
+            blacklistJournal.append(blacklisted, playerName.toLowerCase());
+        } else {
+            writer.save(blacklistPath, this::getBlacklistData);
+        }
+    }
+
+    @Override
+    public void setGlobalChatHidden(UUID playerUuid, boolean hidden) {
+        if (journalStore != null) {
+            hiddenGlobalChatJournal.append(hidden, playerUuid.toString());
+        } else {
+            writer.save(hiddenGlobalChatPath, this::getHiddenGlobalChatData);
+        }
+    }
+
+    @Override
+    public boolean supportsReload() {
+        // A compaction could move changes between the files while they are read back
+        return !journalMode;
+    }
+
+    @Override
+    public boolean isOwnWrite(Path file) {
+        return YamlFiles.isUnchangedSinceWrite(file);
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    @Override
+    public void close() {
+        if (journalStore != null) {
+            journalStore.shutdown();
+        }
+        writer.shutdown();
+    }
+
+    /**
+     * Save changes with the write-behind writer instead of the journals
+     */
+    private void disableJournals() {
+        if (journalStore != null) {
+            journalStore.shutdown();
+            journalStore = null;
+        }
+    }
+
+    /**
+     * Apply journaled changes to the YAML file they belong to and delete the journal
+     */
+    private void recover(Path path, String key, Journal journal) throws IOException {
+        List<Journal.Record> records = journal.replay();
+        if (records.isEmpty()) {
+            journal.discard();
+            return;
+        }
+
+        List<String> loaded = YamlFiles.loadList(yaml, path, key);
+        Set<String> values = new LinkedHashSet<>(loaded != null ? loaded : List.of());
+        for (Journal.Record record : records) {
+            if (record.isAdd()) {
+                values.add(record.getValue());
+            } else {
+                values.remove(record.getValue());
+            }
+        }
+
+        YamlFiles.writeList(yaml, path, key, values);
+        journal.discard();
+        logger.info("Applied {} journaled changes to {}", records.size(), path.getFileName());
+    }
+
+    private Map<String, Object> getBlacklistData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put(Constants.YamlKeys.BLACKLISTED_PLAYERS, new ArrayList<>(playerState.getBlacklistedPlayers()));
+        return data;
+    }
+
+    private Map<String, Object> getHiddenGlobalChatData() {
+        Map<String, Object> data = new HashMap<>();
+
+        List<String> hiddenPlayerStrings = playerState.getHiddenGlobalChat().stream()
+                .map(UUID::toString)
+                .collect(Collectors.toList());
+        data.put(Constants.YamlKeys.HIDDEN_PLAYERS, hiddenPlayerStrings);
+        return data;
+    }
+}
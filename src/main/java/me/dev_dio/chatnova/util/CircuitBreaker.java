@@ -0,0 +1,93 @@
+package me.dev_dio.chatnova.util;
+
+import org.slf4j.Logger;
+
+/**
+ * Simple consecutive-failure circuit breaker for calls to outside dependencies.
+ * After too many failures in a row calls are skipped for a cooldown window, then a single
+ * trial call decides whether to close the breaker again.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final Logger logger;
+    private volatile int failureThreshold;
+    private volatile long cooldownMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(String name, Logger logger, int failureThreshold, long cooldownMillis) {
+        this.name = name;
+        this.logger = logger;
+        configure(failureThreshold, cooldownMillis);
+    }
+
+    /**
+     * Update the thresholds without resetting the current state
+     */
+    public void configure(int failureThreshold, long cooldownMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.cooldownMillis = Math.max(0, cooldownMillis);
+    }
+
+    /**
+     * Check if a call may go through right now
+     * @return false while the breaker is open, or while a half-open trial call is in flight
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt >= cooldownMillis) {
+                    transition(State.HALF_OPEN);
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Record a call that succeeded. While open this is ignored, the call was started before
+     * the breaker tripped and only the half-open trial may close it.
+     */
+    public synchronized void recordSuccess() {
+        if (state == State.OPEN) {
+            return;
+        }
+
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAt = System.currentTimeMillis();
+            transition(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void transition(State newState) {
+        State previous = state;
+        state = newState;
+
+        if (newState == State.OPEN) {
+            logger.warn("[{}] Circuit breaker {} -> OPEN after {} consecutive failures, skipping calls for {} ms",
+                    name, previous, consecutiveFailures, cooldownMillis);
+        } else {
+            logger.info("[{}] Circuit breaker {} -> {}", name, previous, newState);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package me.dev_dio.chatnova.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A format string compiled once into alternating literal and placeholder segments.
+ * Rendering is a single append pass, and replacement values are never scanned again,
+ * so user text containing something like "{player}" is left untouched.
+ */
+public final class FormatTemplate {
+    private final String source;
+    private final String[] literals;
+    private final String[] names;
+    private final String[] tokens;
+    private final int literalLength;
+
+    /**
+     * Supplies the value of a placeholder while rendering
+     */
+    @FunctionalInterface
+    public interface Resolver {
+        /**
+         * @param name Placeholder name without its delimiters, e.g. "player"
+         * @return The replacement, or null to keep the placeholder text as-is
+         */
+        String resolve(String name);
+    }
+
+    private FormatTemplate(String source, List<String> literals, List<String> names, List<String> tokens) {
+        this.source = source;
+        this.literals = literals.toArray(new String[0]);
+        this.names = names.toArray(new String[0]);
+        this.tokens = tokens.toArray(new String[0]);
+
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compile a template using {name} placeholders
+     */
+    public static FormatTemplate compile(String text) {
+        return compile(text, false);
+    }
+
+    /**
+     * Compile a template
+     * @param text The template text
+     * @param allowPercent Also treat %name% as a placeholder
+     * @return The compiled template
+     */
+    public static FormatTemplate compile(String text, boolean allowPercent) {
+        String source = text != null ? text : "";
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+
+        int literalStart = 0;
+        int i = 0;
+        while (i < source.length()) {
+            char open = source.charAt(i);
+            char close = open == '{' ? '}' : open == '%' && allowPercent ? '%' : 0;
+            int end = close != 0 ? findPlaceholderEnd(source, i + 1, close) : -1;
+
+            if (end < 0) {
+                i++;
+                continue;
+            }
+
+            literals.add(source.substring(literalStart, i));
+            names.add(source.substring(i + 1, end));
+            tokens.add(source.substring(i, end + 1));
+            i = end + 1;
+            literalStart = i;
+        }
+        literals.add(source.substring(literalStart));
+
+        return new FormatTemplate(source, literals, names, tokens);
+    }
+
+    /**
+     * Render the template
+     */
+    public String render(Resolver resolver) {
+        if (names.length == 0) {
+            return source;
+        }
+
+        StringBuilder builder = new StringBuilder(literalLength + names.length * 16);
+        renderTo(builder, resolver);
+        return builder.toString();
+    }
+
+    /**
+     * Render the template into an existing builder
+     */
+    public void renderTo(StringBuilder builder, Resolver resolver) {
+        builder.append(literals[0]);
+        for (int i = 0; i < names.length; i++) {
+            String value = resolver.resolve(names[i]);
+            builder.append(value != null ? value : tokens[i]);
+            builder.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Check if the template uses a placeholder
+     */
+    public boolean hasPlaceholder(String name) {
+        return countPlaceholder(name) > 0;
+    }
+
+    /**
+     * Count how many times a placeholder is used
+     */
+    public int countPlaceholder(String name) {
+        int count = 0;
+        for (String placeholder : names) {
+            if (placeholder.equals(name)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Split the template around a placeholder that occurs exactly once
+     * @param name The placeholder to split at
+     * @return The part before and the part after the placeholder, or null if it is missing or repeated
+     */
+    public FormatTemplate[] splitAt(String name) {
+        if (countPlaceholder(name) != 1) {
+            return null;
+        }
+
+        int index = 0;
+        while (!names[index].equals(name)) {
+            index++;
+        }
+
+        FormatTemplate head = new FormatTemplate(
+                joinSource(0, index),
+                Arrays.asList(literals).subList(0, index + 1),
+                Arrays.asList(names).subList(0, index),
+                Arrays.asList(tokens).subList(0, index));
+        FormatTemplate tail = new FormatTemplate(
+                joinSource(index + 1, names.length),
+                Arrays.asList(literals).subList(index + 1, literals.length),
+                Arrays.asList(names).subList(index + 1, names.length),
+                Arrays.asList(tokens).subList(index + 1, tokens.length));
+        return new FormatTemplate[] { head, tail };
+    }
+
+    /**
+     * Get the original template text
+     */
+    public String getSource() {
+        return source;
+    }
+
+    private String joinSource(int fromLiteral, int toPlaceholder) {
+        StringBuilder builder = new StringBuilder(literals[fromLiteral]);
+        for (int i = fromLiteral; i < toPlaceholder; i++) {
+            builder.append(tokens[i]).append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    private static int findPlaceholderEnd(String text, int from, char close) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == close) {
+                return i > from ? i : -1;
+            }
+            if (!isNameChar(c)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+}
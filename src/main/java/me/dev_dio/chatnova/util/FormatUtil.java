@@ -1,6 +1,7 @@
 package me.dev_dio.chatnova.util;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -180,7 +181,9 @@ public final class FormatUtil {
     }
     
     /**
-     * Apply placeholders to a text string
+     * Apply placeholders to a text string in a single pass using {@link FormatTemplate}.
+     * Both {placeholder} and %placeholder% formats are supported, and keys may be given
+     * with or without their delimiters.
      * @param text The text with placeholders
      * @param placeholders Map of placeholder -> replacement pairs
      * @return Text with placeholders replaced
@@ -190,18 +193,7 @@ public final class FormatUtil {
             return text;
         }
         
-        String result = text;
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            String placeholder = entry.getKey();
-            String replacement = entry.getValue() != null ? entry.getValue() : "";
-            
-            // Support both {placeholder} and %placeholder% formats
-            result = result.replace("{" + placeholder + "}", replacement);
-            result = result.replace("%" + placeholder + "%", replacement);
-            result = result.replace(placeholder, replacement);
-        }
-        
-        return result;
+        return applyPlaceholders(FormatTemplate.compile(text, true), placeholders);
     }
     
     /**
@@ -215,22 +207,83 @@ public final class FormatUtil {
             return text;
         }
         
-        String result = text;
-        for (int i = 0; i < replacements.length; i += 2) {
-            if (i + 1 < replacements.length) {
-                String placeholder = replacements[i];
-                String replacement = replacements[i + 1] != null ? replacements[i + 1] : "";
-                
-                // Support both {placeholder} and %placeholder% formats
-                result = result.replace("{" + placeholder + "}", replacement);
-                result = result.replace("%" + placeholder + "%", replacement);
-                result = result.replace(placeholder, replacement);
+        return applyPlaceholders(FormatTemplate.compile(text, true), replacements);
+    }
+    
+    /**
+     * Apply simple placeholder replacements to an already compiled template
+     * @param template Template compiled with %placeholder% support
+     * @param replacements Alternating placeholder and replacement values
+     * @return Text with placeholders replaced
+     */
+    public static String applyPlaceholders(FormatTemplate template, String... replacements) {
+        Map<String, String> placeholders = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < replacements.length; i += 2) {
+            // The first value given for a key wins, as it did with chained replacements
+            placeholders.putIfAbsent(replacements[i], replacements[i + 1]);
+        }
+        
+        return applyPlaceholders(template, placeholders);
+    }
+    
+    /**
+     * Apply placeholders to an already compiled template
+     * @param template Template compiled with %placeholder% support
+     * @param placeholders Map of placeholder -> replacement pairs
+     * @return Text with placeholders replaced
+     */
+    public static String applyPlaceholders(FormatTemplate template, Map<String, String> placeholders) {
+        String text = template.getSource();
+        if (placeholders == null || placeholders.isEmpty()) {
+            return text;
+        }
+        
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+            String key = entry.getKey();
+            String name = placeholderName(key);
+            
+            // A key given without delimiters also replaces its plain text, which the template
+            // cannot express, so such texts keep the old replacement chain
+            if (name.equals(key) && text.contains(key)) {
+                return replaceEach(text, placeholders);
             }
+            values.put(name, entry.getValue() != null ? entry.getValue() : "");
         }
         
+        return template.render(values::get);
+    }
+    
+    /**
+     * Replace {key}, %key% and then the key itself, one placeholder after another
+     */
+    private static String replaceEach(String text, Map<String, String> placeholders) {
+        String result = text;
+        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+            String placeholder = entry.getKey();
+            String replacement = entry.getValue() != null ? entry.getValue() : "";
+            
+            result = result.replace("{" + placeholder + "}", replacement);
+            result = result.replace("%" + placeholder + "%", replacement);
+            result = result.replace(placeholder, replacement);
+        }
         return result;
     }
     
+    /**
+     * Strip {} or %% delimiters from a placeholder key
+     */
+    private static String placeholderName(String key) {
+        if (key.length() > 2) {
+            char first = key.charAt(0);
+            char last = key.charAt(key.length() - 1);
+            if ((first == '{' && last == '}') || (first == '%' && last == '%')) {
+                return key.substring(1, key.length() - 1);
+            }
+        }
+        return key;
+    }
+    
     /**
      * Validate that a color code is valid
      * @param colorCode The color code to validate (e.g., "&c", "#FF0000")
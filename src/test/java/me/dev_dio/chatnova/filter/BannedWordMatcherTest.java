@@ -0,0 +1,131 @@
+package me.dev_dio.chatnova.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BannedWordMatcherTest {
+
+    @Test
+    void reportsOverlappingWords() {
+        BannedWordMatcher matcher = BannedWordMatcher.build(List.of("abc", "bcd", "cd"));
+
+        // All three end inside "abcd" and overlap each other
+        assertEquals(List.of("0-3", "1-4", "2-4"), spans(matcher, "abcd"));
+        assertEquals("****", censor(matcher, "abcd"));
+    }
+
+    @Test
+    void reportsWordsThatAreSuffixesOfOtherWords() {
+        BannedWordMatcher matcher = BannedWordMatcher.build(List.of("he", "she", "hers"));
+
+        // "he" is reached only through the failure/output links of "she"
+        assertEquals(List.of("1-4", "2-4", "2-6"), spans(matcher, "ushers"));
+        assertTrue(matcher.matches("she"));
+        assertTrue(matcher.matches("he"));
+        assertFalse(matcher.matches("sh"));
+    }
+
+    @Test
+    void repeatedWordMatchesEveryOccurrence() {
+        BannedWordMatcher matcher = BannedWordMatcher.build(List.of("aa"));
+
+        assertEquals(List.of("0-2", "1-3", "2-4"), spans(matcher, "aaaa"));
+    }
+
+    @Test
+    void matchingIsCaseInsensitive() {
+        BannedWordMatcher matcher = BannedWordMatcher.build(List.of("BadWord", "spam"));
+
+        assertTrue(matcher.matches("this is a BADWORD"));
+        assertTrue(matcher.matches("this is a badword"));
+        assertTrue(matcher.matches("SpAm here"));
+        assertEquals(List.of("5-12"), spans(matcher, "what bAdWoRd"));
+        assertEquals("what *******", censor(matcher, "what bAdWoRd"));
+    }
+
+    @Test
+    void duplicateWordsDifferingInCaseCountOnce() {
+        BannedWordMatcher matcher = BannedWordMatcher.build(Arrays.asList("spam", "SPAM", "", null));
+
+        assertEquals(1, matcher.getWordCount());
+        assertEquals(List.of("0-4"), spans(matcher, "Spam"));
+    }
+
+    @Test
+    void emptyListMatchesNothing() {
+        BannedWordMatcher matcher = BannedWordMatcher.build(List.of());
+
+        assertEquals(0, matcher.getWordCount());
+        assertEquals(1, matcher.getStateCount());
+        assertFalse(matcher.matches("anything at all"));
+        assertEquals(List.of(), spans(matcher, "anything at all"));
+    }
+
+    @Test
+    void scanStopsWhenTheHandlerSaysSo() {
+        BannedWordMatcher matcher = BannedWordMatcher.build(List.of("a"));
+        List<Integer> ends = new ArrayList<>();
+
+        matcher.scan("aaa", (start, end) -> {
+            ends.add(end);
+            return false;
+        });
+        assertEquals(List.of(1), ends);
+    }
+
+    @Test
+    void updateBannedWordsRebuildsTheMatcher() {
+        ChatFilter filter = new ChatFilter(256);
+        filter.updateBannedWords(List.of("foo", "bar"));
+        BannedWordMatcher before = filter.getMatcher();
+        assertTrue(filter.containsBannedWords("FOO"));
+        assertFalse(filter.containsBannedWords("baz"));
+
+        assertTrue(filter.updateBannedWords(List.of("bar", "Baz")));
+        BannedWordMatcher after = filter.getMatcher();
+        assertNotNull(after);
+        assertFalse(before == after);
+        assertEquals(2, after.getWordCount());
+        assertFalse(filter.containsBannedWords("foo"));
+        assertTrue(filter.containsBannedWords("bar"));
+        assertTrue(filter.containsBannedWords("BAZ"));
+        assertEquals("*** and ***", filter.censorMessage("Bar and baz"));
+
+        // The old matcher is untouched, so a message already being checked keeps its answer
+        assertTrue(before.matches("foo"));
+    }
+
+    @Test
+    void unchangedWordListKeepsTheMatcher() {
+        ChatFilter filter = new ChatFilter(256);
+        filter.updateBannedWords(List.of("foo"));
+        BannedWordMatcher before = filter.getMatcher();
+
+        assertFalse(filter.updateBannedWords(List.of("FOO ")));
+        assertTrue(before == filter.getMatcher());
+    }
+
+    private static List<String> spans(BannedWordMatcher matcher, String text) {
+        List<String> spans = new ArrayList<>();
+        for (BannedWordMatcher.Match match : matcher.findMatches(text)) {
+            spans.add(match.getStart() + "-" + match.getEnd());
+        }
+        return spans;
+    }
+
+    private static String censor(BannedWordMatcher matcher, String text) {
+        char[] chars = text.toCharArray();
+        matcher.scan(text, (start, end) -> {
+            Arrays.fill(chars, start, end, '*');
+            return true;
+        });
+        return new String(chars);
+    }
+}
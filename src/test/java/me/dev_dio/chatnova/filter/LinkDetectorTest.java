@@ -0,0 +1,126 @@
+package me.dev_dio.chatnova.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class LinkDetectorTest {
+
+    // The patterns ChatFilter used before LinkDetector replaced them
+    private static final Pattern BASELINE_URL = Pattern.compile(
+        "(?i)\\b(?:https?://|www\\.|[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,})\\S*",
+        Pattern.CASE_INSENSITIVE
+    );
+    private static final Pattern BASELINE_IP = Pattern.compile(
+        "\\b(?:[0-9]{1,3}\\.){3}[0-9]{1,3}(?::[0-9]{1,5})?\\b"
+    );
+
+    private static final List<String> INPUTS = List.of(
+        // Bare domains
+        "example.com",
+        "visit example.com now",
+        "play.example.net",
+        "my-server.co.uk",
+        "EXAMPLE.COM",
+        "sub.domain.example.org/path?q=1",
+        "_example.com",
+        "example.c0m",
+        // www.
+        "www.example",
+        "WWW.",
+        "go to www.",
+        "xwww.example",
+        "ww.example",
+        // Schemes
+        "http://x",
+        "https://example.com",
+        "HTTPS://EXAMPLE",
+        "see http:/example",
+        "https:/",
+        "ftp://example",
+        "xhttp://example",
+        "(http://example)",
+        // IPv4 with and without port
+        "1.2.3.4",
+        "join 192.168.0.1 now",
+        "192.168.0.1:25565",
+        "10.0.0.1:",
+        "255.255.255.255",
+        "999.999.999.999",
+        "1.2.3.4.5",
+        "1234.1.1.1",
+        "1.2.3.4567",
+        "a1.2.3.4",
+        "1.2.3.4a",
+        "1.2.3.4_",
+        "[1.2.3.4]",
+        // Trailing punctuation
+        "example.com.",
+        "example.com!",
+        "look at 1.2.3.4.",
+        "1.2.3.4,",
+        "www.example.com, ok?",
+        // Near misses
+        "1.2.3",
+        "a.b",
+        "a.b.",
+        "1.2.3.",
+        "1..2.3.4",
+        "e.g",
+        "version 1.20.4",
+        "...",
+        ".com",
+        "just chatting",
+        "",
+        "h\u00e9llo.w\u00f6rld"
+    );
+
+    @Test
+    void urlDetectionMatchesTheBaselinePattern() {
+        for (String input : INPUTS) {
+            boolean expected = BASELINE_URL.matcher(input).find();
+            assertEquals(input + " -> " + expected, input + " -> " + detectUrl(input));
+        }
+    }
+
+    @Test
+    void ipDetectionMatchesTheBaselinePattern() {
+        for (String input : INPUTS) {
+            boolean expected = BASELINE_IP.matcher(input).find();
+            assertEquals(input + " -> " + expected, input + " -> " + detectIp(input));
+        }
+    }
+
+    @Test
+    void filterMessageMatchesTheBaselinePatterns() {
+        ChatFilter filter = new ChatFilter(256);
+        for (String input : INPUTS) {
+            if (input.isEmpty()) {
+                continue;
+            }
+            ChatFilter.FilterResult result = filter.filterMessage(input);
+            assertEquals(input + " -> " + BASELINE_URL.matcher(input).find(), input + " -> " + result.hasUrls());
+            assertEquals(input + " -> " + BASELINE_IP.matcher(input).find(), input + " -> " + result.hasIpAddresses());
+        }
+    }
+
+    private static boolean detectUrl(String input) {
+        LinkDetector detector = new LinkDetector();
+        for (int i = 0; i < input.length(); i++) {
+            detector.accept(input.charAt(i));
+        }
+        detector.finish();
+        return detector.foundUrl();
+    }
+
+    private static boolean detectIp(String input) {
+        LinkDetector detector = new LinkDetector();
+        for (int i = 0; i < input.length(); i++) {
+            detector.accept(input.charAt(i));
+        }
+        detector.finish();
+        return detector.foundIp();
+    }
+}
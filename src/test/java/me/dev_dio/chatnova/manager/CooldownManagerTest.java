@@ -0,0 +1,97 @@
+package me.dev_dio.chatnova.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.api.proxy.Player;
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import me.dev_dio.chatnova.Constants;
+import org.junit.jupiter.api.Test;
+
+class CooldownManagerTest {
+
+    private final CooldownManager cooldowns = new CooldownManager();
+
+    CooldownManagerTest() {
+        cooldowns.configure(ConfigSnapshot.compile(Map.of("cooldown", Map.of(
+                "default", 30,
+                "premium", 10,
+                "vip", 5))));
+    }
+
+    @Test
+    void tierIsCachedForTheSession() {
+        FakePlayer player = new FakePlayer();
+        player.permissions.add(Constants.Permissions.GC_COOLDOWN_VIP);
+        assertEquals(5, cooldowns.getCooldownSeconds(player.proxy()));
+
+        // Permission changes are only seen after refreshTier()
+        player.permissions.clear();
+        assertEquals(5, cooldowns.getCooldownSeconds(player.proxy()));
+        cooldowns.refreshTier(player.proxy());
+        assertEquals(30, cooldowns.getCooldownSeconds(player.proxy()));
+    }
+
+    @Test
+    void startAfterEvictDoesNotCacheTheTier() {
+        FakePlayer player = new FakePlayer();
+        player.permissions.add(Constants.Permissions.GC_COOLDOWN_PREMIUM);
+
+        // Disconnect: the player goes inactive, then the listener evicts them
+        player.active = false;
+        cooldowns.evict(player.uuid);
+
+        // A message that was still in the pipeline finishes afterwards
+        cooldowns.start(player.proxy());
+        assertTrue(cooldowns.getRemainingMillis(player.uuid) > 0);
+
+        // Nothing was cached, so the tier is resolved from the current permissions
+        player.permissions.clear();
+        assertEquals(30, cooldowns.getCooldownSeconds(player.proxy()));
+    }
+
+    @Test
+    void evictDropsTheCachedTier() {
+        FakePlayer player = new FakePlayer();
+        player.permissions.add(Constants.Permissions.GC_COOLDOWN_PREMIUM);
+        cooldowns.start(player.proxy());
+
+        cooldowns.evict(player.uuid);
+        assertEquals(0, cooldowns.getRemainingMillis(player.uuid));
+
+        player.permissions.clear();
+        assertEquals(30, cooldowns.getCooldownSeconds(player.proxy()));
+    }
+
+    private static final class FakePlayer {
+        private final UUID uuid = UUID.randomUUID();
+        private final Set<String> permissions = new HashSet<>();
+        private volatile boolean active = true;
+
+        private Player proxy() {
+            return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[] { Player.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getUniqueId":
+                                return uuid;
+                            case "hasPermission":
+                                return permissions.contains((String) args[0]);
+                            case "isActive":
+                                return active;
+                            case "hashCode":
+                                return uuid.hashCode();
+                            case "equals":
+                                return proxy == args[0];
+                            case "toString":
+                                return "FakePlayer[" + uuid + "]";
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+}
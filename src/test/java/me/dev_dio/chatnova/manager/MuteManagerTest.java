@@ -0,0 +1,165 @@
+package me.dev_dio.chatnova.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import me.dev_dio.chatnova.util.CircuitBreaker;
+
+class MuteManagerTest {
+    private static final long TIMEOUT_MILLIS = 50;
+    private static final long SLOW_MILLIS = 200;
+
+    private final AtomicLong delayMillis = new AtomicLong();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private volatile CountDownLatch finished = new CountDownLatch(0);
+
+    private MuteManager muteManager;
+
+    @AfterEach
+    void shutdown() {
+        if (muteManager != null) {
+            muteManager.shutdown();
+        }
+    }
+
+    @Test
+    void slowDatabaseTripsTheBreaker() throws InterruptedException {
+        muteManager = create(2, 60);
+        delayMillis.set(SLOW_MILLIS);
+        finished = new CountDownLatch(2);
+
+        // Both time out, fail-open lets the messages through
+        assertFalse(muteManager.isMuted(UUID.randomUUID()));
+        assertFalse(muteManager.isMuted(UUID.randomUUID()));
+        awaitLookups();
+
+        // The lookups answering late must not close the breaker again
+        assertEquals(CircuitBreaker.State.OPEN, muteManager.getCircuitState());
+        assertFalse(muteManager.isMuted(UUID.randomUUID()));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void lateAnswerCountsAsFailure() throws InterruptedException {
+        muteManager = create(1, 60);
+        delayMillis.set(SLOW_MILLIS);
+        finished = new CountDownLatch(1);
+
+        // Nobody waits for a prefetch, it only fails by answering late
+        muteManager.prefetch(UUID.randomUUID());
+        awaitLookups();
+
+        assertEquals(CircuitBreaker.State.OPEN, muteManager.getCircuitState());
+    }
+
+    @Test
+    void timelyAnswerIsCachedAndKeepsBreakerClosed() throws InterruptedException {
+        muteManager = create(1, 60);
+        UUID uuid = UUID.randomUUID();
+
+        assertTrue(muteManager.isMuted(uuid));
+        assertTrue(muteManager.isMuted(uuid));
+        assertEquals(1, lookups.get());
+        assertEquals(CircuitBreaker.State.CLOSED, muteManager.getCircuitState());
+    }
+
+    @Test
+    void concurrentMissesShareOneLookup() throws InterruptedException {
+        muteManager = create(1, 60);
+        delayMillis.set(TIMEOUT_MILLIS / 2);
+        UUID uuid = UUID.randomUUID();
+
+        Thread[] senders = new Thread[8];
+        AtomicInteger muted = new AtomicInteger();
+        for (int i = 0; i < senders.length; i++) {
+            senders[i] = new Thread(() -> {
+                if (muteManager.isMuted(uuid)) {
+                    muted.incrementAndGet();
+                }
+            });
+            senders[i].start();
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+
+        assertEquals(senders.length, muted.get());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void lookupFinishingAfterEvictIsNotCached() throws InterruptedException {
+        muteManager = create(1, 60);
+        delayMillis.set(TIMEOUT_MILLIS / 2);
+        finished = new CountDownLatch(1);
+        UUID uuid = UUID.randomUUID();
+
+        muteManager.prefetch(uuid);
+        muteManager.evict(uuid);
+        awaitLookups();
+
+        assertEquals(0, muteManager.size());
+    }
+
+    @Test
+    void prefetchLeavesTheHalfOpenTrialToChat() throws InterruptedException {
+        muteManager = create(1, 0);
+        delayMillis.set(SLOW_MILLIS);
+        finished = new CountDownLatch(1);
+        muteManager.isMuted(UUID.randomUUID());
+        awaitLookups();
+        assertEquals(CircuitBreaker.State.OPEN, muteManager.getCircuitState());
+
+        // The cooldown is over, but a prefetch must not start the trial
+        delayMillis.set(0);
+        muteManager.prefetch(UUID.randomUUID());
+        assertEquals(CircuitBreaker.State.OPEN, muteManager.getCircuitState());
+        assertEquals(1, lookups.get());
+
+        // The next /gc runs the trial and closes the breaker
+        assertTrue(muteManager.isMuted(UUID.randomUUID()));
+        assertEquals(CircuitBreaker.State.CLOSED, muteManager.getCircuitState());
+    }
+
+    /**
+     * Create a fail-open manager whose lookups answer "muted" after {@link #delayMillis}
+     */
+    private MuteManager create(int failureThreshold, int cooldownSeconds) {
+        MuteManager manager = new MuteManager(NOPLogger.NOP_LOGGER, uuid -> {
+            lookups.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                finished.countDown();
+            }
+            return true;
+        });
+        manager.configure(ConfigSnapshot.compile(Map.of("litebans", Map.of(
+                "lookup-timeout", (int) TIMEOUT_MILLIS,
+                "fail-mode", "open",
+                "breaker", Map.of("failure-threshold", failureThreshold, "cooldown", cooldownSeconds)))));
+        return manager;
+    }
+
+    /**
+     * Wait until the slow lookups answered and their outcome was recorded
+     */
+    private void awaitLookups() throws InterruptedException {
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+    }
+}
@@ -0,0 +1,79 @@
+package me.dev_dio.chatnova.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.api.proxy.Player;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class RecipientIndexTest {
+
+    private final PlayerStateStore playerState = new PlayerStateStore();
+    private final RecipientIndex index = new RecipientIndex(playerState);
+
+    @Test
+    void hiddenPlayersFollowThePlayerState() {
+        Player alice = player();
+        Player bob = player();
+        index.setOnlinePlayers(List.of(alice, bob));
+        assertEquals(2, index.getRecipients().length);
+
+        playerState.toggleGlobalChatHidden(alice.getUniqueId());
+        assertEquals(Set.of(bob), Set.of(index.getRecipients()));
+
+        playerState.setGlobalChatHidden(alice.getUniqueId(), false);
+        assertEquals(2, index.getRecipients().length);
+    }
+
+    @Test
+    void reloadedHiddenSetIsApplied() {
+        Player alice = player();
+        Player bob = player();
+        index.setOnlinePlayers(List.of(alice, bob));
+
+        playerState.replaceHiddenGlobalChat(List.of(alice.getUniqueId(), bob.getUniqueId()));
+        assertEquals(0, index.getRecipients().length);
+    }
+
+    @Test
+    void recipientsAreReusedUntilSomethingChanges() {
+        index.setOnlinePlayers(List.of(player()));
+        Player[] first = index.getRecipients();
+        assertTrue(first == index.getRecipients());
+
+        // Toggling a player who isn't online still publishes a new hidden set
+        playerState.toggleGlobalChatHidden(UUID.randomUUID());
+        Player[] rebuilt = index.getRecipients();
+        assertEquals(1, rebuilt.length);
+        assertTrue(rebuilt == index.getRecipients());
+
+        Player joined = player();
+        index.addPlayer(joined);
+        assertEquals(2, index.getRecipients().length);
+        index.removePlayer(joined.getUniqueId());
+        assertEquals(1, index.getRecipients().length);
+    }
+
+    private static Player player() {
+        UUID uuid = UUID.randomUUID();
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[] { Player.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getUniqueId":
+                            return uuid;
+                        case "hashCode":
+                            return uuid.hashCode();
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "Player[" + uuid + "]";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
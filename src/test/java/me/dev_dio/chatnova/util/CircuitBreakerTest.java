@@ -0,0 +1,79 @@
+package me.dev_dio.chatnova.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterThresholdFailuresInARow() {
+        CircuitBreaker breaker = new CircuitBreaker("test", NOPLogger.NOP_LOGGER, 3, 60_000);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker("test", NOPLogger.NOP_LOGGER, 2, 60_000);
+
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void successWhileOpenDoesNotClose() {
+        CircuitBreaker breaker = new CircuitBreaker("test", NOPLogger.NOP_LOGGER, 1, 60_000);
+
+        breaker.recordFailure();
+        // A call started before the breaker tripped
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void halfOpenAllowsASingleTrial() {
+        CircuitBreaker breaker = new CircuitBreaker("test", NOPLogger.NOP_LOGGER, 1, 0);
+
+        breaker.recordFailure();
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void halfOpenTrialSuccessCloses() {
+        CircuitBreaker breaker = new CircuitBreaker("test", NOPLogger.NOP_LOGGER, 1, 0);
+
+        breaker.recordFailure();
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void halfOpenTrialFailureReopens() {
+        CircuitBreaker breaker = new CircuitBreaker("test", NOPLogger.NOP_LOGGER, 5, 60_000);
+        for (int i = 0; i < 5; i++) {
+            breaker.recordFailure();
+        }
+        breaker.configure(5, 0);
+
+        assertTrue(breaker.allowRequest());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,46 @@
+package me.dev_dio.chatnova.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import me.dev_dio.chatnova.manager.ConfigSnapshot;
+import org.junit.jupiter.api.Test;
+
+class FormatUtilTest {
+
+    @Test
+    void replacesDelimitedPlaceholders() {
+        assertEquals("Wait 3s", FormatUtil.applyPlaceholders("Wait {time}s", "{time}", "3"));
+        assertEquals("Wait 3s", FormatUtil.applyPlaceholders("Wait %time%s", "time", "3"));
+        assertEquals("Max 10", FormatUtil.applyPlaceholders("Max {max}", Map.of("max", "10")));
+    }
+
+    @Test
+    void valuesAreNotScannedForPlaceholders() {
+        assertEquals("<{max}> 5", FormatUtil.applyPlaceholders("<{player}> {max}", "{player}", "{max}", "{max}", "5"));
+    }
+
+    @Test
+    void bareKeysAlsoReplaceTheirPlainText() {
+        // Keys given without delimiters have always replaced the plain word as well
+        assertEquals("3 left, 3s", FormatUtil.applyPlaceholders("time left, {time}s", "time", "3"));
+        assertEquals("Hi Steve", FormatUtil.applyPlaceholders("Hi PLAYER", Map.of("PLAYER", "Steve")));
+    }
+
+    @Test
+    void unknownPlaceholdersAreKept() {
+        assertEquals("{other} 1", FormatUtil.applyPlaceholders("{other} {max}", "{max}", "1"));
+    }
+
+    @Test
+    void snapshotCachesTemplatesPerFormatString() {
+        ConfigSnapshot snapshot = ConfigSnapshot.compile(Map.of("messages", Map.of("cooldown", "Wait {time}s")));
+
+        FormatTemplate first = snapshot.getMessageTemplate("messages.cooldown", "default");
+        assertTrue(first == snapshot.getMessageTemplate("messages.cooldown", "other default"));
+        assertFalse(first == snapshot.getMessageTemplate("messages.missing", "default"));
+        assertEquals("Wait 2s", FormatUtil.applyPlaceholders(first, "{time}", "2"));
+    }
+}